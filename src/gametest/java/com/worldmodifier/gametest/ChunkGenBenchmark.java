@@ -0,0 +1,451 @@
+package com.worldmodifier.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.WorldModifierConfig.BedrockPattern;
+import com.worldmodifier.WorldModifierConfig.FilterMode;
+import com.worldmodifier.WorldModifierConfig.ReplacementStrategy;
+import com.worldmodifier.WorldModifierConfig.TerrainBand;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.dimension.DimensionProfiles;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.GameTestSequence;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeManager;
+import net.minecraft.world.level.biome.MultiNoiseBiomeSource;
+import net.minecraft.world.level.biome.MultiNoiseBiomeSourceParameterLists;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.UpgradeData;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.WorldGenerationContext;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * End-to-end chunk generation benchmark, run as a GameTest by the gameTestServer run.
+ *
+ * Design: The GameTest server's own world is superflat, so the benchmark builds an overworld
+ * noise generator of its own and binds it, its biome source and the overworld noise settings to
+ * a detached binding per case (see {@link DimensionProfiles#detached}). Every case generates the
+ * same seeded square of proto chunks through the biome, noise and surface stages, once to warm
+ * up and once measured, one case per tick. Carvers and features need a full WorldGenRegion of
+ * neighbours and are left out.
+ *
+ * Per case it reports chunks per second, time per stage, bytes allocated by all threads (noise
+ * is filled on the worldgen executor) and a SHA-256 digest of every block state and biome.
+ * Results go to worldmodifier-benchmark-[timestamp].json in the game directory. The test fails
+ * if the two passes of a case differ, or if worldmodifier-benchmark-baseline.json exists there
+ * and a case's digest differs from the one recorded in it; copy a previous result file to that
+ * name to pin the output.
+ *
+ * Contract: Runs on the server thread. The overworld noise settings are registry objects shared
+ * with any overworld-like stem, so their previous bindings are restored once every case has run.
+ * The GameTest server stops after its tests, so a failed run leaves nothing behind.
+ */
+@GameTestHolder(WorldModifier.MODID)
+@PrefixGameTestTemplate(false)
+public class ChunkGenBenchmark {
+
+    private static final long SEED = 8_675_309L;
+    private static final String BASELINE_FILE = "worldmodifier-benchmark-baseline.json";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Chunks per side of the generated square; override with -Dworldmodifier.benchmarkSize=<n>
+    private static final int SIZE = Integer.getInteger("worldmodifier.benchmarkSize", 6);
+
+    // Overworld range used while a profile leaves the world unmodified
+    private static final int VANILLA_MIN_Y = -64;
+    private static final int VANILLA_HEIGHT = 384;
+
+    // Everything but the noise fill runs inline on the server thread
+    private static final Executor INLINE = Runnable::run;
+
+    // ==================== Cases ====================
+
+    private enum Height {
+        DEFAULT(WorldModifierConfig.DEFAULT_BEDROCK_LEVEL, WorldModifierConfig.DEFAULT_MAX_HEIGHT, TerrainBand.OFF),
+        TALL(-512, 1024, TerrainBand.OFF),
+        // Narrower than the overworld's own noise range, which vanilla already clamps to
+        TALL_BANDED(-512, 1024, TerrainBand.CUSTOM);
+
+        static final int BAND_MIN_Y = 0;
+        static final int BAND_MAX_Y = 160;
+
+        final int bedrockLevel;
+        final int maxHeight;
+        final TerrainBand band;
+
+        Height(int bedrockLevel, int maxHeight, TerrainBand band) {
+            this.bedrockLevel = bedrockLevel;
+            this.maxHeight = maxHeight;
+            this.band = band;
+        }
+    }
+
+    private record Case(FilterMode mode, int listSize, int seaLevel, Height height) {
+
+        String name() {
+            String filter = mode == FilterMode.DISABLED ? "disabled" : mode.name().toLowerCase() + "-" + listSize;
+            return filter + "_sea" + seaLevel + "_" + height.name().toLowerCase();
+        }
+
+        WorldGenProfile profile(List<ResourceLocation> biomes) {
+            return new WorldGenProfile(mode, biomes.subList(0, listSize), ReplacementStrategy.FALLBACK,
+                    List.of(), List.of(), WorldModifierConfig.DEFAULT_FALLBACK_CELL_SIZE,
+                    WorldModifierConfig.DEFAULT_BIOME_CACHE_SIZE, seaLevel, height.bedrockLevel, height.maxHeight,
+                    true, BedrockPattern.FLAT, WorldModifierConfig.DEFAULT_BEDROCK_THICKNESS,
+                    height.band, Height.BAND_MIN_Y, Height.BAND_MAX_Y, false);
+        }
+    }
+
+    /**
+     * @return every filter mode and list size, against the vanilla and a raised sea level, in each height
+     */
+    private static List<Case> cases() {
+        List<Case> cases = new ArrayList<>();
+        for (Height height : Height.values()) {
+            for (int seaLevel : new int[]{WorldModifierConfig.DEFAULT_SEA_LEVEL, 200}) {
+                cases.add(new Case(FilterMode.DISABLED, 0, seaLevel, height));
+                for (FilterMode mode : new FilterMode[]{FilterMode.WHITELIST, FilterMode.BLACKLIST}) {
+                    for (int listSize : new int[]{1, 8}) {
+                        cases.add(new Case(mode, listSize, seaLevel, height));
+                    }
+                }
+            }
+        }
+        return cases;
+    }
+
+    private record Result(Case testCase, int chunks, long biomesNanos, long noiseNanos, long surfaceNanos,
+                          long allocatedBytes, String digest) {
+
+        double chunksPerSecond() {
+            return chunks * 1.0e9 / Math.max(1, biomesNanos + noiseNanos + surfaceNanos);
+        }
+    }
+
+    // ==================== Test ====================
+
+    @GameTest(template = "empty", batch = "benchmark", timeoutTicks = 1200)
+    public static void chunkGeneration(GameTestHelper helper) {
+        Fixture fixture = new Fixture(helper.getLevel());
+        List<Result> results = new ArrayList<>();
+        GameTestSequence sequence = helper.startSequence();
+        for (Case testCase : cases()) {
+            sequence.thenExecuteAfter(1, () -> results.add(fixture.run(helper, testCase)));
+        }
+        sequence.thenExecute(() -> {
+            fixture.restore();
+            List<String> changed = compareToBaseline(results);
+            Path file = write(results);
+            WorldModifier.LOGGER.info("[ChunkGenBenchmark.chunkGeneration]: Wrote {} cases to {}", results.size(), file);
+            if (!changed.isEmpty()) {
+                helper.fail("Output differs from " + BASELINE_FILE + " in " + String.join(", ", changed));
+            }
+        }).thenSucceed();
+    }
+
+    // ==================== Generation ====================
+
+    /**
+     * The registry objects, chunk positions and biome ids shared by all cases.
+     */
+    private static final class Fixture {
+
+        private final ServerLevel level;
+        private final RegistryAccess access;
+        private final Registry<Biome> biomes;
+        private final Holder<NoiseGeneratorSettings> settings;
+        private final List<ChunkPos> positions = new ArrayList<>();
+        private final List<ResourceLocation> biomeIds = new ArrayList<>();
+
+        // Bindings of the shared noise settings before the benchmark replaced them
+        private final DimensionBinding settingsBinding;
+        private final DimensionBinding noiseSettingsBinding;
+
+        Fixture(ServerLevel level) {
+            this.level = level;
+            this.access = level.getServer().registryAccess();
+            this.biomes = access.registryOrThrow(Registries.BIOME);
+            this.settings = access.registryOrThrow(Registries.NOISE_SETTINGS).getHolderOrThrow(NoiseGeneratorSettings.OVERWORLD);
+            this.settingsBinding = ((DimensionBound) (Object) settings.value()).worldmodifier$binding();
+            this.noiseSettingsBinding = ((DimensionBound) (Object) settings.value().noiseSettings()).worldmodifier$binding();
+
+            // Sorted, so list sizes pick the same biomes on every run
+            newBiomeSource().possibleBiomes().stream()
+                    .map(holder -> holder.unwrapKey().orElseThrow().location())
+                    .sorted(Comparator.comparing(ResourceLocation::toString))
+                    .forEach(biomeIds::add);
+
+            RandomSource random = RandomSource.create(SEED);
+            int originX = random.nextInt(2048) - 1024;
+            int originZ = random.nextInt(2048) - 1024;
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    ChunkPos pos = new ChunkPos(originX + x, originZ + z);
+                    positions.add(pos);
+                    // Noise filling looks up structure references here; load them before timing
+                    level.getChunk(pos.x, pos.z, ChunkStatus.STRUCTURE_REFERENCES);
+                }
+            }
+        }
+
+        MultiNoiseBiomeSource newBiomeSource() {
+            return MultiNoiseBiomeSource.createFromPreset(
+                    access.lookupOrThrow(Registries.MULTI_NOISE_BIOME_SOURCE_PARAMETER_LIST)
+                            .getOrThrow(MultiNoiseBiomeSourceParameterLists.OVERWORLD));
+        }
+
+        Result run(GameTestHelper helper, Case testCase) {
+            WorldGenProfile profile = testCase.profile(biomeIds);
+            DimensionBinding binding = DimensionProfiles.detached(
+                    new ResourceLocation(WorldModifier.MODID, "benchmark/" + testCase.name()), profile, SEED);
+
+            // Fresh generator and source per case, so no filter table or cache carries over
+            MultiNoiseBiomeSource source = newBiomeSource();
+            NoiseBasedChunkGenerator generator = new NoiseBasedChunkGenerator(source, settings);
+            bind(generator, binding);
+            bind(source, binding);
+            bind(settings.value(), binding);
+            bind(settings.value().noiseSettings(), binding);
+            RandomState randomState = RandomState.create(settings.value(), access.lookupOrThrow(Registries.NOISE), SEED);
+
+            Result warmup = generate(testCase, profile, generator, randomState);
+            Result result = generate(testCase, profile, generator, randomState);
+            if (!warmup.digest().equals(result.digest())) {
+                helper.fail("Case " + testCase.name() + " generated different chunks on its second pass");
+            }
+            WorldModifier.LOGGER.info("[ChunkGenBenchmark.run]: {}: {} chunks/s, biomes {} ms, noise {} ms, surface {} ms, {} MB allocated",
+                    testCase.name(), String.format("%.1f", result.chunksPerSecond()),
+                    result.biomesNanos() / 1_000_000, result.noiseNanos() / 1_000_000,
+                    result.surfaceNanos() / 1_000_000, result.allocatedBytes() >> 20);
+            return result;
+        }
+
+        private Result generate(Case testCase, WorldGenProfile profile, NoiseBasedChunkGenerator generator,
+                                RandomState randomState) {
+            LevelHeightAccessor heights = heightAccessor(profile);
+            StructureManager structures = level.structureManager();
+            MessageDigest digest = sha256();
+            long biomesNanos = 0;
+            long noiseNanos = 0;
+            long surfaceNanos = 0;
+            long allocated = 0;
+
+            for (ChunkPos pos : positions) {
+                ProtoChunk chunk = new ProtoChunk(pos, UpgradeData.EMPTY, heights, biomes, null);
+                long allocatedBefore = allocatedBytes();
+
+                long start = System.nanoTime();
+                generator.createBiomes(INLINE, randomState, Blender.empty(), structures, chunk).join();
+                long biomesDone = System.nanoTime();
+                generator.fillFromNoise(INLINE, Blender.empty(), randomState, structures, chunk).join();
+                long noiseDone = System.nanoTime();
+                generator.buildSurface(chunk, new WorldGenerationContext(generator, chunk), randomState, structures,
+                        new BiomeManager(chunk, BiomeManager.obfuscateSeed(SEED)), biomes, Blender.empty());
+                long surfaceDone = System.nanoTime();
+
+                allocated += Math.max(0, allocatedBytes() - allocatedBefore);
+                biomesNanos += biomesDone - start;
+                noiseNanos += noiseDone - biomesDone;
+                surfaceNanos += surfaceDone - noiseDone;
+                digest(digest, chunk);
+            }
+            return new Result(testCase, positions.size(), biomesNanos, noiseNanos, surfaceNanos, allocated,
+                    HexFormat.of().formatHex(digest.digest()));
+        }
+
+        /**
+         * Adds every block state and biome of a chunk to the digest, bottom section first.
+         */
+        private void digest(MessageDigest digest, ProtoChunk chunk) {
+            ByteBuffer buffer = ByteBuffer.allocate((4096 + 64) * Integer.BYTES);
+            for (LevelChunkSection section : chunk.getSections()) {
+                buffer.clear();
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            buffer.putInt(Block.getId(section.getBlockState(x, y, z)));
+                        }
+                    }
+                }
+                for (int y = 0; y < 4; y++) {
+                    for (int z = 0; z < 4; z++) {
+                        for (int x = 0; x < 4; x++) {
+                            buffer.putInt(biomes.getId(section.getNoiseBiome(x, y, z).value()));
+                        }
+                    }
+                }
+                digest.update(buffer.array(), 0, buffer.position());
+            }
+        }
+
+        void restore() {
+            bind(settings.value(), settingsBinding);
+            bind(settings.value().noiseSettings(), noiseSettingsBinding);
+        }
+    }
+
+    private static void bind(Object target, DimensionBinding binding) {
+        ((DimensionBound) target).worldmodifier$bind(binding);
+    }
+
+    /**
+     * @return the range the dimension type would report with this profile bound to it
+     */
+    private static LevelHeightAccessor heightAccessor(WorldGenProfile profile) {
+        int minY = profile.worldModificationActive ? profile.minY : VANILLA_MIN_Y;
+        int height = profile.worldModificationActive ? profile.height : VANILLA_HEIGHT;
+        return new LevelHeightAccessor() {
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public int getMinBuildHeight() {
+                return minY;
+            }
+        };
+    }
+
+    /**
+     * @return bytes allocated so far by all live threads, or 0 if the JVM does not track them
+     */
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemoryEnabled()) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // ==================== Results ====================
+
+    /**
+     * @return names of the cases whose digest differs from the baseline file, empty without one
+     */
+    private static List<String> compareToBaseline(List<Result> results) {
+        Path file = FMLPaths.GAMEDIR.get().resolve(BASELINE_FILE);
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        Map<String, String> expected = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            JsonObject baseline = new Gson().fromJson(reader, JsonObject.class);
+            for (JsonElement element : baseline.getAsJsonArray("cases")) {
+                JsonObject entry = element.getAsJsonObject();
+                expected.put(entry.get("name").getAsString(), entry.get("digest").getAsString());
+            }
+        } catch (IOException | RuntimeException e) {
+            WorldModifier.LOGGER.error("[ChunkGenBenchmark.compareToBaseline]: Failed to read {}", file, e);
+            return List.of(BASELINE_FILE + " (unreadable)");
+        }
+
+        List<String> changed = new ArrayList<>();
+        for (Result result : results) {
+            String digest = expected.get(result.testCase().name());
+            if (digest != null && !digest.equals(result.digest())) {
+                changed.add(result.testCase().name());
+            }
+        }
+        return changed;
+    }
+
+    private static Path write(List<Result> results) {
+        JsonObject root = new JsonObject();
+        root.addProperty("version", ModList.get().getModContainerById(WorldModifier.MODID)
+                .map(container -> container.getModInfo().getVersion().toString()).orElse("unknown"));
+        root.addProperty("timestamp", LocalDateTime.now().toString());
+        root.addProperty("seed", SEED);
+        root.addProperty("chunksPerCase", SIZE * SIZE);
+
+        JsonArray cases = new JsonArray();
+        for (Result result : results) {
+            Case testCase = result.testCase();
+            JsonObject entry = new JsonObject();
+            entry.addProperty("name", testCase.name());
+            entry.addProperty("mode", testCase.mode().name());
+            entry.addProperty("listSize", testCase.listSize());
+            entry.addProperty("seaLevel", testCase.seaLevel());
+            entry.addProperty("bedrockLevel", testCase.height().bedrockLevel);
+            entry.addProperty("maxHeight", testCase.height().maxHeight);
+            entry.addProperty("terrainBand", testCase.height().band == TerrainBand.OFF ? "OFF"
+                    : Height.BAND_MIN_Y + ".." + Height.BAND_MAX_Y);
+            entry.addProperty("chunksPerSecond", result.chunksPerSecond());
+            entry.addProperty("biomesMs", result.biomesNanos() / 1.0e6);
+            entry.addProperty("noiseMs", result.noiseNanos() / 1.0e6);
+            entry.addProperty("surfaceMs", result.surfaceNanos() / 1.0e6);
+            entry.addProperty("allocatedBytes", result.allocatedBytes());
+            entry.addProperty("digest", result.digest());
+            cases.add(entry);
+        }
+        root.add("cases", cases);
+
+        Path file = FMLPaths.GAMEDIR.get().resolve(
+                "worldmodifier-benchmark-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".json");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(root, writer);
+        } catch (IOException e) {
+            WorldModifier.LOGGER.error("[ChunkGenBenchmark.write]: Failed to write {}", file, e);
+        }
+        return file;
+    }
+}
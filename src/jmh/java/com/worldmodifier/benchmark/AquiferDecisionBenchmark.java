@@ -0,0 +1,73 @@
+package com.worldmodifier.benchmark;
+
+import com.worldmodifier.WorldModifierConfig.FilterMode;
+import com.worldmodifier.gen.SeaLevelFluidPicker;
+import net.minecraft.world.level.levelgen.Aquifer;
+import net.minecraft.world.level.levelgen.DensityFunction;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-block substance decision of the flooded aquifer (Aquifer.createDisabled with a
+ * {@link SeaLevelFluidPicker}), over one 16x384x16 chunk of pseudo-random densities.
+ * This is all the aquifer work left per block when floodCaves is on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AquiferDecisionBenchmark {
+
+    private static final int MIN_Y = -64;
+    private static final int HEIGHT = 384;
+
+    @Param({"0", "200"})
+    public int seaLevel;
+
+    private Aquifer aquifer;
+    private double[] densities;
+
+    @Setup
+    public void setup() {
+        BenchmarkProfiles.bootstrap();
+        SeaLevelFluidPicker picker = SeaLevelFluidPicker.create(
+                BenchmarkProfiles.profile(FilterMode.DISABLED, List.of(), 0, seaLevel),
+                NoiseGeneratorSettings.dummy());
+        aquifer = Aquifer.createDisabled(picker);
+
+        SplittableRandom random = new SplittableRandom(42);
+        densities = new double[HEIGHT];
+        for (int i = 0; i < HEIGHT; i++) {
+            densities[i] = random.nextDouble(-1.0, 1.0);
+        }
+    }
+
+    @Benchmark
+    public void chunk(Blackhole blackhole) {
+        for (int column = 0; column < 256; column++) {
+            int x = column & 15;
+            int z = column >> 4;
+            for (int i = 0; i < HEIGHT; i++) {
+                DensityFunction.FunctionContext context = new DensityFunction.SinglePointContext(x, MIN_Y + i, z);
+                blackhole.consume(aquifer.computeSubstance(context, densities[i]));
+            }
+        }
+    }
+}
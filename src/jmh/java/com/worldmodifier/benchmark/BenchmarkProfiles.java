@@ -0,0 +1,77 @@
+package com.worldmodifier.benchmark;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.WorldModifierConfig.BedrockPattern;
+import com.worldmodifier.WorldModifierConfig.FilterMode;
+import com.worldmodifier.WorldModifierConfig.ReplacementStrategy;
+import com.worldmodifier.WorldModifierConfig.TerrainBand;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderOwner;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for the benchmarks: synthetic biome ids, stand-alone holders and profiles.
+ * Only benchmarks touching blocks call {@link #bootstrap()}; the rest run without registries.
+ */
+final class BenchmarkProfiles {
+
+    private static final HolderOwner<Biome> OWNER = new HolderOwner<>() {
+    };
+
+    private BenchmarkProfiles() {
+    }
+
+    /**
+     * @return {@code count} distinct biome ids, the first being {@code minecraft:plains}
+     */
+    static List<ResourceLocation> biomeIds(int count) {
+        List<ResourceLocation> ids = new ArrayList<>(count);
+        ids.add(new ResourceLocation("minecraft", "plains"));
+        for (int i = 1; i < count; i++) {
+            ids.add(new ResourceLocation("benchmark", "biome_" + i));
+        }
+        return ids;
+    }
+
+    /**
+     * @return a stand-alone holder per id, like the registry references a biome source returns
+     */
+    static List<Holder<Biome>> holders(List<ResourceLocation> ids) {
+        List<Holder<Biome>> holders = new ArrayList<>(ids.size());
+        for (ResourceLocation id : ids) {
+            holders.add(Holder.Reference.createStandAlone(OWNER, ResourceKey.create(Registries.BIOME, id)));
+        }
+        return holders;
+    }
+
+    /**
+     * Loads the built-in registries, needed before any block state is touched.
+     */
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    static WorldGenProfile profile(FilterMode mode, List<ResourceLocation> list, int biomeCacheSize, int seaLevel) {
+        return profile(mode, list, List.of(), biomeCacheSize, seaLevel);
+    }
+
+    static WorldGenProfile profile(FilterMode mode, List<ResourceLocation> list, List<ResourceLocation> fallbacks,
+                                   int biomeCacheSize, int seaLevel) {
+        return new WorldGenProfile(mode, list, ReplacementStrategy.FALLBACK,
+                fallbacks, List.of(), WorldModifierConfig.DEFAULT_FALLBACK_CELL_SIZE, biomeCacheSize,
+                seaLevel, WorldModifierConfig.DEFAULT_BEDROCK_LEVEL, WorldModifierConfig.DEFAULT_MAX_HEIGHT,
+                true, BedrockPattern.FLAT, WorldModifierConfig.DEFAULT_BEDROCK_THICKNESS,
+                TerrainBand.OFF, WorldModifierConfig.DEFAULT_TERRAIN_BAND_MIN_Y,
+                WorldModifierConfig.DEFAULT_TERRAIN_BAND_MAX_Y, false);
+    }
+}
@@ -0,0 +1,60 @@
+package com.worldmodifier.benchmark;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifierConfig.FilterMode;
+import net.minecraft.resources.ResourceLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link WorldGenProfile#isBiomeAllowed(ResourceLocation)}, the name-based check used
+ * when compiling filter tables, across list sizes and filter modes.
+ * Queries alternate between listed and unlisted biomes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiomeAllowedBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int listSize;
+
+    @Param({"WHITELIST", "BLACKLIST"})
+    public FilterMode mode;
+
+    private WorldGenProfile profile;
+    private ResourceLocation[] queries;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        List<ResourceLocation> all = BenchmarkProfiles.biomeIds(listSize * 2);
+        profile = BenchmarkProfiles.profile(mode, all.subList(0, listSize), 0, 63);
+        // Fresh instances so lookups hash and compare like ids parsed from elsewhere
+        queries = all.stream()
+                .map(id -> new ResourceLocation(id.getNamespace(), id.getPath()))
+                .toArray(ResourceLocation[]::new);
+    }
+
+    @Benchmark
+    public boolean isBiomeAllowed() {
+        ResourceLocation biome = queries[cursor];
+        cursor = (cursor + 1) % queries.length;
+        return profile.isBiomeAllowed(biome);
+    }
+}
@@ -0,0 +1,85 @@
+package com.worldmodifier.benchmark;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifierConfig.FilterMode;
+import com.worldmodifier.biome.BiomeFilterTable;
+import com.worldmodifier.biome.QuartBiomeCache;
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.biome.Biome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot path of the biome source mixins: the identity-keyed replacement lookup done for every
+ * getNoiseBiome call, and the quart cache in front of it.
+ * Holder counts match vanilla (~65 overworld biomes) and a large modpack; one fallback versus
+ * a spread over several, which adds the cell hash.
+ * Run with the GC profiler; both benchmarks should report ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiomeFilterTableBenchmark {
+
+    @Param({"65", "400"})
+    public int possibleBiomes;
+
+    @Param({"WHITELIST", "BLACKLIST"})
+    public FilterMode mode;
+
+    @Param({"1", "4"})
+    public int fallbacks;
+
+    private BiomeFilterTable table;
+    private QuartBiomeCache cache;
+    private Holder<Biome>[] queries;
+    private int cursor;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        List<ResourceLocation> ids = BenchmarkProfiles.biomeIds(possibleBiomes);
+        List<Holder<Biome>> holders = BenchmarkProfiles.holders(ids);
+        // Ocean-style list: a handful of allowed biomes out of the whole set
+        List<ResourceLocation> allowed = ids.subList(0, 9);
+        WorldGenProfile profile = BenchmarkProfiles.profile(mode, allowed, allowed.subList(0, fallbacks), 4096, 63);
+        table = BiomeFilterTable.build(profile, holders, "benchmark");
+        cache = new QuartBiomeCache(profile.biomeCacheSize);
+        queries = holders.toArray(new Holder[0]);
+
+        for (int i = 0; i < 4096; i++) {
+            cache.put(i & 63, i >> 6, 0, queries[i % queries.length]);
+        }
+    }
+
+    @Benchmark
+    public Holder<Biome> replace() {
+        int i = cursor;
+        cursor = (cursor + 1) % queries.length;
+        // Walk diagonally so consecutive lookups land in different fallback cells
+        return table.replace(queries[i], i << 6, i << 6);
+    }
+
+    @Benchmark
+    public Holder<Biome> cachedLookup() {
+        int i = cursor;
+        cursor = (cursor + 1) & 4095;
+        return cache.get(i & 63, i >> 6, 0);
+    }
+}
@@ -0,0 +1,203 @@
+package com.worldmodifier;
+
+import com.worldmodifier.WorldModifierConfig.BedrockPattern;
+import com.worldmodifier.WorldModifierConfig.FilterMode;
+import com.worldmodifier.WorldModifierConfig.ReplacementStrategy;
+import com.worldmodifier.WorldModifierConfig.TerrainBand;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, precompiled snapshot of the World Modifier configuration.
+ *
+ * Design: Built once by {@link WorldModifierConfig#rebuildCache()} and published through a single
+ * volatile reference. Mixins on worldgen hot paths read the final fields directly instead of going
+ * through ForgeConfigSpec lookups, and every derived value (rounded min Y, height, activity flags)
+ * is worked out up front.
+ *
+ * Invariant: Instances are never mutated after construction, so a reference obtained once can be
+ * used for the rest of a computation without observing a partial reload.
+ */
+public final class WorldGenProfile {
+
+    private static final ResourceLocation DEFAULT_FALLBACK = new ResourceLocation("minecraft", "plains");
+    private static final AtomicLong EPOCHS = new AtomicLong();
+
+    /**
+     * Profile used before the config has been loaded. Behaves exactly like vanilla.
+     */
+    public static final WorldGenProfile VANILLA = new WorldGenProfile(
+            FilterMode.DISABLED,
+            List.of(),
+            ReplacementStrategy.FALLBACK,
+            List.of(),
+            List.of(),
+            WorldModifierConfig.DEFAULT_FALLBACK_CELL_SIZE,
+            WorldModifierConfig.DEFAULT_BIOME_CACHE_SIZE,
+            WorldModifierConfig.DEFAULT_SEA_LEVEL,
+            WorldModifierConfig.DEFAULT_BEDROCK_LEVEL,
+            WorldModifierConfig.DEFAULT_MAX_HEIGHT,
+            true,
+            BedrockPattern.FLAT,
+            WorldModifierConfig.DEFAULT_BEDROCK_THICKNESS,
+            TerrainBand.OFF,
+            WorldModifierConfig.DEFAULT_TERRAIN_BAND_MIN_Y,
+            WorldModifierConfig.DEFAULT_TERRAIN_BAND_MAX_Y,
+            false
+    );
+
+    /**
+     * Monotonic version number; every compiled profile gets a new one.
+     * Caches derived from a profile remember its epoch and rebuild when it changes.
+     */
+    public final long epoch;
+
+    // ==================== BIOME FILTERING ====================
+
+    public final FilterMode mode;
+    /** Unmodifiable set of biomes in the filter list. */
+    public final Set<ResourceLocation> biomes;
+    /** Unmodifiable biome list in config order. */
+    public final List<ResourceLocation> biomeList;
+    /** Biome used to replace non-allowed biomes; the first of {@link #fallbackBiomes}. */
+    public final ResourceLocation fallbackBiome;
+    /** Unmodifiable, never empty list of biomes that non-allowed biomes are spread across. */
+    public final List<ResourceLocation> fallbackBiomes;
+    /** Weight of each entry in {@link #fallbackBiomes}, 1 to 16. */
+    public final List<Integer> fallbackWeights;
+    /** Log2 of the size, in quarts, of the square cells that each pick one fallback. */
+    public final int fallbackCellShift;
+    /** How non-allowed biomes are replaced. */
+    public final ReplacementStrategy replacement;
+    /** True if biome filtering is active (mode is not DISABLED and the list is not empty). */
+    public final boolean filteringActive;
+    /** Entries in each biome source's quart cache; 0 disables it. */
+    public final int biomeCacheSize;
+    /** True if biome sources report only the biomes the filter can produce from possibleBiomes(). */
+    public final boolean filterPossibleBiomes;
+
+    // ==================== WORLD GENERATION ====================
+
+    public final int seaLevel;
+    public final int bedrockLevel;
+    public final int maxHeight;
+    /** True if open space below the custom sea level is flooded instead of using aquifers. */
+    public final boolean floodCaves;
+    /** Shape of the bedrock floor. */
+    public final BedrockPattern bedrockPattern;
+    /** Layers in the bedrock floor, 1 to 16 so it stays within the bottom section. */
+    public final int bedrockThickness;
+    /** Whether noise is narrowed to the band below; only used while {@link #terrainBandActive}. */
+    public final TerrainBand terrainBand;
+    /** Lowest block y of a CUSTOM terrain band. */
+    public final int terrainBandMinY;
+    /** Block y above the top of a CUSTOM terrain band. */
+    public final int terrainBandMaxY;
+    /** Bedrock level rounded down to a multiple of 16. */
+    public final int minY;
+    /** Max height rounded up to a multiple of 16, minus {@link #minY}. */
+    public final int height;
+    /** True if the sea level differs from vanilla. */
+    public final boolean customSeaLevel;
+    /** True if any world setting differs from vanilla defaults. */
+    public final boolean worldModificationActive;
+    /** True if noise is clamped to a CUSTOM terrain band; only with modified heights. */
+    public final boolean terrainBandActive;
+
+    /**
+     * @param fallbacks fallback biomes; empty to use the first biome of {@code biomeList}
+     * @param fallbackWeights weight per fallback; missing entries default to 1
+     * @param fallbackCellSize blocks per fallback cell side, rounded down to a power of two (4 to 4096)
+     * @param terrainBandMinY bottom of a CUSTOM terrain band; swapped with the top if above it
+     */
+    public WorldGenProfile(FilterMode mode, List<ResourceLocation> biomeList, ReplacementStrategy replacement,
+                           List<ResourceLocation> fallbacks, List<Integer> fallbackWeights, int fallbackCellSize,
+                           int biomeCacheSize, int seaLevel, int bedrockLevel, int maxHeight,
+                           boolean floodCaves, BedrockPattern bedrockPattern, int bedrockThickness,
+                           TerrainBand terrainBand, int terrainBandMinY, int terrainBandMaxY,
+                           boolean filterPossibleBiomes) {
+        this.epoch = EPOCHS.incrementAndGet();
+        this.mode = mode;
+        this.biomeList = List.copyOf(biomeList);
+        this.biomes = Set.copyOf(biomeList);
+        if (!fallbacks.isEmpty()) {
+            this.fallbackBiomes = List.copyOf(fallbacks);
+        } else {
+            this.fallbackBiomes = List.of(this.biomeList.isEmpty() ? DEFAULT_FALLBACK : this.biomeList.get(0));
+        }
+        List<Integer> weights = new ArrayList<>(this.fallbackBiomes.size());
+        for (int i = 0; i < this.fallbackBiomes.size(); i++) {
+            int weight = i < fallbackWeights.size() ? fallbackWeights.get(i) : 1;
+            weights.add(Math.max(1, Math.min(16, weight)));
+        }
+        this.fallbackWeights = List.copyOf(weights);
+        this.fallbackBiome = this.fallbackBiomes.get(0);
+        int cellQuarts = Math.max(1, Math.min(1024, fallbackCellSize >> 2));
+        this.fallbackCellShift = 31 - Integer.numberOfLeadingZeros(cellQuarts);
+        this.replacement = replacement;
+        this.filteringActive = mode != FilterMode.DISABLED && !this.biomes.isEmpty();
+        this.biomeCacheSize = biomeCacheSize;
+        this.filterPossibleBiomes = filterPossibleBiomes;
+
+        this.seaLevel = seaLevel;
+        this.bedrockLevel = bedrockLevel;
+        this.maxHeight = maxHeight;
+        this.floodCaves = floodCaves;
+        this.bedrockPattern = bedrockPattern;
+        this.bedrockThickness = Math.max(1, Math.min(16, bedrockThickness));
+        this.terrainBand = terrainBand;
+        this.terrainBandMinY = Math.min(terrainBandMinY, terrainBandMaxY);
+        this.terrainBandMaxY = Math.max(terrainBandMinY, terrainBandMaxY);
+        // Round minY down and maxHeight up to nearest 16 (Minecraft requires divisible by 16)
+        this.minY = Math.floorDiv(bedrockLevel, 16) * 16;
+        this.height = ((maxHeight + 15) / 16) * 16 - this.minY;
+        this.customSeaLevel = seaLevel != WorldModifierConfig.DEFAULT_SEA_LEVEL;
+        this.worldModificationActive = customSeaLevel ||
+                bedrockLevel != WorldModifierConfig.DEFAULT_BEDROCK_LEVEL ||
+                maxHeight != WorldModifierConfig.DEFAULT_MAX_HEIGHT;
+        this.terrainBandActive = worldModificationActive && terrainBand == TerrainBand.CUSTOM;
+    }
+
+    /**
+     * @return lowest block y noise is evaluated at, if within the noise settings' own range
+     */
+    public int terrainBandBottom() {
+        return terrainBandMinY;
+    }
+
+    /**
+     * Without flooding, the band reaches above a custom sea level, so the water surface comes
+     * from the aquifer as usual. With flooding, open space is water up to the sea level whatever
+     * the noise says, so the water above the band is filled in bulk instead
+     * (see {@link #floodsAboveTerrainBand}).
+     *
+     * @return block y above the highest one noise is evaluated at, if within the noise settings' own range
+     */
+    public int terrainBandTop() {
+        return customSeaLevel && !floodCaves ? Math.max(terrainBandMaxY, seaLevel + 1) : terrainBandMaxY;
+    }
+
+    /**
+     * @return true if the space between the top of the terrain band and the sea level is
+     *         filled with water in bulk
+     */
+    public boolean floodsAboveTerrainBand() {
+        return terrainBandActive && customSeaLevel && floodCaves;
+    }
+
+    /**
+     * @param biome the biome to check
+     * @return true if biome is allowed to generate under this profile
+     */
+    public boolean isBiomeAllowed(ResourceLocation biome) {
+        if (!filteringActive) {
+            return true;
+        }
+        boolean inList = biomes.contains(biome);
+        return mode == FilterMode.WHITELIST ? inList : !inList;
+    }
+}
@@ -1,8 +1,22 @@
 package com.worldmodifier;
 
 import com.mojang.logging.LogUtils;
+import com.worldmodifier.biome.QuartBiomeCache;
+import com.worldmodifier.command.WorldModifierCommands;
+import com.worldmodifier.dimension.DimensionProfiles;
+import com.worldmodifier.metrics.Diagnostics;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import com.worldmodifier.pregen.PregenManager;
+import net.minecraft.world.level.Level;
 import net.minecraftforge.client.ConfigScreenHandler;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.config.ModConfig;
@@ -23,6 +37,7 @@ public class WorldModifier {
     public WorldModifier() {
         ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, WorldModifierConfig.SPEC);
         MinecraftForge.EVENT_BUS.register(this);
+        WorldModifierMetrics.registerEvents();
 
         // Register config screen (accessible via Mod Menu or Forge's mod list)
         ModLoadingContext.get().registerExtensionPoint(
@@ -53,4 +68,50 @@ public class WorldModifier {
             LOGGER.info("[WorldModifier.onConfigReload]: Config reloaded");
         }
     }
+
+    @SubscribeEvent
+    public void onRegisterCommands(RegisterCommandsEvent event) {
+        WorldModifierCommands.register(event.getDispatcher());
+    }
+
+    /**
+     * Attaches the per-dimension profiles to the level stems before any level is created.
+     */
+    @SubscribeEvent
+    public void onServerAboutToStart(ServerAboutToStartEvent event) {
+        DimensionProfiles.bindServer(event.getServer());
+    }
+
+    @SubscribeEvent
+    public void onLevelLoad(LevelEvent.Load event) {
+        if (event.getLevel() instanceof Level level) {
+            DimensionProfiles.bindLevel(level);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStarted(ServerStartedEvent event) {
+        PregenManager.onServerStarted(event.getServer());
+        Diagnostics.logSummary();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            PregenManager.tick();
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        PregenManager.onServerStopping();
+        DimensionProfiles.unbindServer();
+
+        long hits = QuartBiomeCache.totalHits();
+        long lookups = hits + QuartBiomeCache.totalMisses();
+        if (lookups > 0) {
+            LOGGER.info("[WorldModifier.onServerStopping]: Biome cache hits: {} / {} ({}%)",
+                    hits, lookups, hits * 100 / lookups);
+        }
+    }
 }
@@ -1,12 +1,16 @@
 package com.worldmodifier;
 
+import com.worldmodifier.dimension.DimensionProfiles;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
 import net.minecraftforge.common.ForgeConfigSpec;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -17,6 +21,7 @@ import java.util.Set;
  * - mode: Controls filtering behavior (whitelist, blacklist, or disabled)
  * - preset: Predefined configurations (default, endless_ocean, or custom)
  * - Non-allowed biomes are replaced with a fallback biome from the allowed set
+ * - dimensions / dimensionOverrides: Which dimensions get a profile; all others stay vanilla
  *
  * Invariant: If biome list is empty and mode is not disabled, ALL biomes are allowed (no filtering).
  */
@@ -30,12 +35,35 @@ public class WorldModifierConfig {
         BLACKLIST
     }
 
+    public enum ReplacementStrategy {
+        FALLBACK,
+        CLIMATE
+    }
+
+    public enum BedrockPattern {
+        FLAT,
+        GRADIENT
+    }
+
+    public enum TerrainBand {
+        OFF,
+        CUSTOM
+    }
+
     // ==================== DEFAULT CONSTANTS (Vanilla Minecraft) ====================
 
     public static final int DEFAULT_SEA_LEVEL = 63;
     public static final int DEFAULT_BEDROCK_LEVEL = -64;
     public static final int DEFAULT_MAX_HEIGHT = 512;
+    public static final int DEFAULT_BEDROCK_THICKNESS = 1;
+    public static final int DEFAULT_TERRAIN_BAND_MIN_Y = -64;
+    public static final int DEFAULT_TERRAIN_BAND_MAX_Y = 320;
+    public static final int DEFAULT_FALLBACK_CELL_SIZE = 256;
+    public static final int DEFAULT_BIOME_CACHE_SIZE = 16384;
+    public static final int DEFAULT_PREGEN_MAX_IN_FLIGHT = 64;
+    public static final int DEFAULT_PREGEN_TARGET_MSPT = 40;
     public static final List<String> DEFAULT_BIOMES = List.of();
+    public static final List<String> DEFAULT_DIMENSIONS = List.of("minecraft:overworld");
 
     // ==================== CONFIG SPEC ====================
 
@@ -46,16 +74,37 @@ public class WorldModifierConfig {
 
     // Biome Settings
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> BIOME_LIST;
+    public static final ForgeConfigSpec.EnumValue<ReplacementStrategy> REPLACEMENT;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> FALLBACKS;
+    public static final ForgeConfigSpec.IntValue FALLBACK_CELL_SIZE;
 
     // World Settings
     public static final ForgeConfigSpec.IntValue SEA_LEVEL;
     public static final ForgeConfigSpec.IntValue BEDROCK_LEVEL;
     public static final ForgeConfigSpec.IntValue MAX_HEIGHT;
+    public static final ForgeConfigSpec.BooleanValue FLOOD_CAVES;
+    public static final ForgeConfigSpec.EnumValue<BedrockPattern> BEDROCK_PATTERN;
+    public static final ForgeConfigSpec.IntValue BEDROCK_THICKNESS;
+    public static final ForgeConfigSpec.EnumValue<TerrainBand> TERRAIN_BAND;
+    public static final ForgeConfigSpec.IntValue TERRAIN_BAND_MIN_Y;
+    public static final ForgeConfigSpec.IntValue TERRAIN_BAND_MAX_Y;
+
+    // Dimension Settings
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> DIMENSIONS;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> DIMENSION_OVERRIDES;
+
+    // Performance Settings
+    public static final ForgeConfigSpec.IntValue BIOME_CACHE_SIZE;
+    public static final ForgeConfigSpec.BooleanValue FILTER_POSSIBLE_BIOMES;
+    public static final ForgeConfigSpec.BooleanValue BIOME_TILE_STORE;
+    public static final ForgeConfigSpec.IntValue PREGEN_MAX_IN_FLIGHT;
+    public static final ForgeConfigSpec.IntValue PREGEN_TARGET_MSPT;
 
     // ==================== RUNTIME CACHE ====================
 
-    private static Set<ResourceLocation> biomeCache = Collections.emptySet();
-    private static List<ResourceLocation> biomeListCache = Collections.emptyList();
+    // Compiled from the spec values by rebuildCache(); the per-dimension profiles mixins read are
+    // published to DimensionProfiles
+    private static volatile WorldGenProfile profile = WorldGenProfile.VANILLA;
 
     // ==================== CONFIG INITIALIZATION ====================
 
@@ -125,6 +174,43 @@ public class WorldModifierConfig {
                         obj -> obj instanceof String s && ResourceLocation.tryParse(s) != null
                 );
 
+        REPLACEMENT = builder
+                .comment(
+                        "",
+                        "How non-allowed biomes are replaced:",
+                        "",
+                        "  FALLBACK - Use the first biome from the list (large uniform regions)",
+                        "  CLIMATE  - Pick the allowed biome whose climate is closest to the location",
+                        "             (natural-looking borders; overworld-style biome sources only,",
+                        "             other sources use FALLBACK)"
+                )
+                .defineEnum("replacement", ReplacementStrategy.FALLBACK);
+
+        FALLBACKS = builder
+                .comment(
+                        "",
+                        "Biomes that replace non-allowed biomes with FALLBACK replacement, spread",
+                        "across the world in square cells. Add '*<weight>' (1 to 16) to make a",
+                        "biome more common. If empty, the first biome from the list is used.",
+                        "",
+                        "Example: [\"minecraft:plains*3\", \"minecraft:forest*2\", \"minecraft:meadow\"]"
+                )
+                .defineListAllowEmpty(
+                        List.of("fallbacks"),
+                        List::of,
+                        obj -> obj instanceof String s && parseFallback(s) != null
+                );
+
+        FALLBACK_CELL_SIZE = builder
+                .comment(
+                        "",
+                        "Side length in blocks of the cells that each pick one fallback biome.",
+                        "Rounded down to a power of two.",
+                        "",
+                        "Range: 4 to 4096"
+                )
+                .defineInRange("fallbackCellSize", DEFAULT_FALLBACK_CELL_SIZE, 4, 4096);
+
         builder.pop();
 
         // -------------------- World Generation Section --------------------
@@ -178,6 +264,197 @@ public class WorldModifierConfig {
                 )
                 .defineInRange("maxHeight", DEFAULT_MAX_HEIGHT, -2000, 2000);
 
+        FLOOD_CAVES = builder
+                .comment(
+                        "",
+                        "With a custom sea level, fill all open space below it with water.",
+                        "",
+                        "  true  - Caves below sea level are flooded; aquifer noise is skipped (fastest)",
+                        "  false - Vanilla aquifers and lava caves, using the custom sea level"
+                )
+                .define("floodCaves", true);
+
+        BEDROCK_PATTERN = builder
+                .comment(
+                        "",
+                        "Shape of the bedrock floor placed at the bedrock level",
+                        "(only when a world setting differs from vanilla):",
+                        "",
+                        "  FLAT     - Solid layers, bedrockThickness blocks thick",
+                        "  GRADIENT - Vanilla-style noisy floor: the bottom layer is solid,",
+                        "             higher layers get sparser up to bedrockThickness"
+                )
+                .defineEnum("bedrockPattern", BedrockPattern.FLAT);
+
+        BEDROCK_THICKNESS = builder
+                .comment(
+                        "",
+                        "Number of layers in the bedrock floor.",
+                        "",
+                        "  Vanilla floor: 5 (with GRADIENT)",
+                        "",
+                        "Range: 1 to 16"
+                )
+                .defineInRange("bedrockThickness", DEFAULT_BEDROCK_THICKNESS, 1, 16);
+
+        TERRAIN_BAND = builder
+                .comment(
+                        "",
+                        "Narrows where terrain noise is evaluated (only when a world setting differs from vanilla).",
+                        "Noise only ever runs within the dimension's own noise range (overworld: -64 to 320),",
+                        "however tall the world is; the band can only narrow that range.",
+                        "The part of the range below the band is filled with stone in bulk, losing noise caves,",
+                        "aquifers and ore veins there; above it stays air, or with floodCaves is filled with",
+                        "water up to the sea level (within the range) in bulk.",
+                        "Without floodCaves, the band extends above a custom sea level.",
+                        "A band entirely outside the noise range is ignored with a warning.",
+                        "",
+                        "  OFF    - Evaluate noise over the dimension's whole noise range (vanilla)",
+                        "  CUSTOM - Evaluate noise from terrainBandMinY to terrainBandMaxY only"
+                )
+                .defineEnum("terrainBand", TerrainBand.OFF);
+
+        TERRAIN_BAND_MIN_Y = builder
+                .comment(
+                        "",
+                        "Bottom of the CUSTOM terrain band.",
+                        "",
+                        "Range: -2000 to 2000"
+                )
+                .defineInRange("terrainBandMinY", DEFAULT_TERRAIN_BAND_MIN_Y, -2000, 2000);
+
+        TERRAIN_BAND_MAX_Y = builder
+                .comment(
+                        "",
+                        "Top of the CUSTOM terrain band.",
+                        "",
+                        "Range: -2000 to 2000"
+                )
+                .defineInRange("terrainBandMaxY", DEFAULT_TERRAIN_BAND_MAX_Y, -2000, 2000);
+
+        builder.pop();
+
+        // -------------------- Dimensions Section --------------------
+        builder.comment(
+                "",
+                "===========================================",
+                "              DIMENSIONS                   ",
+                "===========================================",
+                "",
+                "Choose which dimensions the settings above apply to.",
+                "Dimensions not listed here generate exactly like vanilla."
+        );
+        builder.push("dimensions");
+
+        DIMENSIONS = builder
+                .comment(
+                        "Dimensions that use the [biomes] and [world] settings.",
+                        "Added dimensions take effect the next time the world is loaded.",
+                        "",
+                        "Example: [\"minecraft:overworld\", \"minecraft:the_end\"]"
+                )
+                .defineListAllowEmpty(
+                        List.of("list"),
+                        () -> DEFAULT_DIMENSIONS,
+                        obj -> obj instanceof String s && ResourceLocation.tryParse(s) != null
+                );
+
+        DIMENSION_OVERRIDES = builder
+                .comment(
+                        "",
+                        "Dimensions with their own settings, one entry per dimension:",
+                        "  \"<dimension>; <key>=<value>; ...\"",
+                        "",
+                        "Unset keys use the [biomes] and [world] values. Keys: mode, list,",
+                        "replacement, fallbacks, fallbackCellSize, seaLevel, bedrockLevel, maxHeight,",
+                        "floodCaves, bedrockPattern, bedrockThickness, terrainBand, terrainBandMinY,",
+                        "terrainBandMaxY. Biomes in 'list' and 'fallbacks' are separated by commas.",
+                        "A dimension listed here does not need to be in 'list' above.",
+                        "",
+                        "Example: [\"minecraft:the_nether; mode=BLACKLIST; list=minecraft:basalt_deltas\"]"
+                )
+                .defineListAllowEmpty(
+                        List.of("overrides"),
+                        List::of,
+                        obj -> obj instanceof String
+                );
+
+        builder.pop();
+
+        // -------------------- Performance Section --------------------
+        builder.comment(
+                "",
+                "===========================================",
+                "              PERFORMANCE                  ",
+                "===========================================",
+                "",
+                "Tuning for world generation throughput. Defaults suit most servers."
+        );
+        builder.push("performance");
+
+        BIOME_CACHE_SIZE = builder
+                .comment(
+                        "Number of filtered biome lookups remembered per biome source.",
+                        "Repeated lookups of the same spot skip climate noise sampling.",
+                        "",
+                        "  0 = disabled",
+                        "",
+                        "Range: 0 to 1048576"
+                )
+                .defineInRange("biomeCacheSize", DEFAULT_BIOME_CACHE_SIZE, 0, 1 << 20);
+
+        FILTER_POSSIBLE_BIOMES = builder
+                .comment(
+                        "",
+                        "Report only the biomes the filter can produce to the rest of the game.",
+                        "Features and structures of removed biomes are then skipped entirely,",
+                        "which speeds up chunk decoration and structure placement.",
+                        "",
+                        "The biome set is fixed when the world loads: biome changes need a",
+                        "restart, and biomes removed at load time stay removed until then.",
+                        "",
+                        "  true  = faster generation, biome filter changes need a restart",
+                        "  false = biome filter changes apply without a restart"
+                )
+                .define("filterPossibleBiomes", false);
+
+        BIOME_TILE_STORE = builder
+                .comment(
+                        "",
+                        "Save the filtered biomes of generated chunks in the world folder",
+                        "(data/worldmodifier-biomes) and answer later lookups of the same spots",
+                        "from there instead of sampling climate noise again. Helps biome searches,",
+                        "structure checks near explored land and regenerating trimmed chunks.",
+                        "",
+                        "Uses about 0.8 MB of disk per 256x256 blocks explored (overworld height).",
+                        "Stored biomes are ignored after the biome filter changes.",
+                        "Takes effect on the next server start.",
+                        "",
+                        "  true  = store filtered biomes on disk",
+                        "  false = always sample climate noise"
+                )
+                .define("biomeTileStore", false);
+
+        PREGEN_MAX_IN_FLIGHT = builder
+                .comment(
+                        "",
+                        "Maximum chunks /worldmodifier pregen keeps queued for generation at once.",
+                        "Higher values keep more worldgen threads busy but use more memory.",
+                        "",
+                        "Range: 1 to 1024"
+                )
+                .defineInRange("pregenMaxInFlight", DEFAULT_PREGEN_MAX_IN_FLIGHT, 1, 1024);
+
+        PREGEN_TARGET_MSPT = builder
+                .comment(
+                        "",
+                        "Pregeneration stops queueing new chunks while the average server tick",
+                        "takes longer than this many milliseconds (50 = the server is falling behind).",
+                        "",
+                        "Range: 1 to 1000"
+                )
+                .defineInRange("pregenTargetMspt", DEFAULT_PREGEN_TARGET_MSPT, 1, 1000);
+
         builder.pop();
 
         SPEC = builder.build();
@@ -186,32 +463,187 @@ public class WorldModifierConfig {
     // ==================== CACHE MANAGEMENT ====================
 
     /**
-     * Rebuilds the biome cache from config values.
+     * Rebuilds the compiled profile from config values.
      * Called after config load/reload.
      */
     public static void rebuildCache() {
-        List<String> biomeStrings = new ArrayList<>(BIOME_LIST.get());
+        List<ResourceLocation> newList = parseBiomes(BIOME_LIST.get());
+        List<ResourceLocation> fallbacks = new ArrayList<>();
+        List<Integer> fallbackWeights = new ArrayList<>();
+        parseFallbacks(FALLBACKS.get(), fallbacks, fallbackWeights);
+
+        WorldGenProfile newProfile = new WorldGenProfile(
+                MODE.get(), newList, REPLACEMENT.get(),
+                fallbacks, fallbackWeights, FALLBACK_CELL_SIZE.get(), BIOME_CACHE_SIZE.get(),
+                SEA_LEVEL.get(), BEDROCK_LEVEL.get(), MAX_HEIGHT.get(), FLOOD_CAVES.get(),
+                BEDROCK_PATTERN.get(), BEDROCK_THICKNESS.get(),
+                TERRAIN_BAND.get(), TERRAIN_BAND_MIN_Y.get(), TERRAIN_BAND_MAX_Y.get(), FILTER_POSSIBLE_BIOMES.get()
+        );
+        profile = newProfile;
 
-        Set<ResourceLocation> newCache = new HashSet<>();
-        List<ResourceLocation> newList = new ArrayList<>();
+        Map<ResourceLocation, WorldGenProfile> dimensions = new LinkedHashMap<>();
+        for (String id : DIMENSIONS.get()) {
+            ResourceLocation dimension = ResourceLocation.tryParse(id);
+            if (dimension != null) {
+                dimensions.put(dimension, newProfile);
+            }
+        }
+        for (String entry : DIMENSION_OVERRIDES.get()) {
+            compileOverride(entry, newProfile, dimensions);
+        }
+        DimensionProfiles.publish(dimensions);
+
+        WorldModifier.LOGGER.info(
+                "[WorldModifierConfig] Loaded - Mode: {}, Biomes: {}, Replacement: {}, Sea: {}, Bedrock: {} ({} x{}), MaxHeight: {}, Dimensions: {}",
+                newProfile.mode, newProfile.biomes.size(), newProfile.replacement, newProfile.seaLevel,
+                newProfile.bedrockLevel, newProfile.bedrockPattern, newProfile.bedrockThickness, newProfile.maxHeight,
+                dimensions.keySet()
+        );
+    }
 
+    /**
+     * @return the valid biome ids in config order, without duplicates
+     */
+    private static List<ResourceLocation> parseBiomes(List<? extends String> biomeStrings) {
+        List<ResourceLocation> newList = new ArrayList<>();
         for (String biome : biomeStrings) {
-            ResourceLocation loc = ResourceLocation.tryParse(biome);
+            ResourceLocation loc = ResourceLocation.tryParse(biome.trim());
             if (loc != null) {
-                newCache.add(loc);
-                newList.add(loc);
+                if (!newList.contains(loc)) {
+                    newList.add(loc);
+                }
             } else {
                 WorldModifier.LOGGER.warn("[WorldModifierConfig] Invalid biome: {}", biome);
             }
         }
+        return newList;
+    }
 
-        biomeCache = Collections.unmodifiableSet(newCache);
-        biomeListCache = Collections.unmodifiableList(newList);
+    /**
+     * Parses "namespace:path" or "namespace:path*weight".
+     *
+     * @return the biome id, or null if the entry is invalid
+     */
+    private static ResourceLocation parseFallback(String entry) {
+        int separator = entry.indexOf('*');
+        String id = separator < 0 ? entry : entry.substring(0, separator);
+        if (separator >= 0) {
+            try {
+                Integer.parseInt(entry.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return ResourceLocation.tryParse(id.trim());
+    }
 
-        WorldModifier.LOGGER.info(
-                "[WorldModifierConfig] Loaded - Mode: {}, Biomes: {}, Sea: {}, Bedrock: {}, MaxHeight: {}",
-                getMode(), biomeCache.size(), getSeaLevel(), getBedrockLevel(), getMaxHeight()
-        );
+    /**
+     * Parses weighted fallback entries into parallel id and weight lists, skipping invalid ones.
+     */
+    private static void parseFallbacks(List<? extends String> entries, List<ResourceLocation> ids, List<Integer> weights) {
+        for (String entry : entries) {
+            ResourceLocation id = parseFallback(entry);
+            if (id == null) {
+                WorldModifier.LOGGER.warn("[WorldModifierConfig] Invalid fallback: {}", entry);
+                continue;
+            }
+            int separator = entry.indexOf('*');
+            ids.add(id);
+            weights.add(separator < 0 ? 1 : Mth.clamp(Integer.parseInt(entry.substring(separator + 1).trim()), 1, 16));
+        }
+    }
+
+    /**
+     * Compiles one dimensionOverrides entry on top of the global settings and adds it to
+     * {@code dimensions}. Invalid keys or values are skipped with a warning.
+     */
+    private static void compileOverride(String entry, WorldGenProfile base,
+                                        Map<ResourceLocation, WorldGenProfile> dimensions) {
+        String[] parts = entry.split(";");
+        ResourceLocation dimension = ResourceLocation.tryParse(parts[0].trim());
+        if (dimension == null) {
+            WorldModifier.LOGGER.warn("[WorldModifierConfig] Invalid dimension in override: {}", entry);
+            return;
+        }
+
+        FilterMode mode = MODE.get();
+        List<ResourceLocation> list = base.biomeList;
+        ReplacementStrategy replacement = REPLACEMENT.get();
+        List<ResourceLocation> fallbacks = new ArrayList<>();
+        List<Integer> fallbackWeights = new ArrayList<>();
+        parseFallbacks(FALLBACKS.get(), fallbacks, fallbackWeights);
+        int fallbackCellSize = FALLBACK_CELL_SIZE.get();
+        int seaLevel = SEA_LEVEL.get();
+        int bedrockLevel = BEDROCK_LEVEL.get();
+        int maxHeight = MAX_HEIGHT.get();
+        boolean floodCaves = FLOOD_CAVES.get();
+        BedrockPattern bedrockPattern = BEDROCK_PATTERN.get();
+        int bedrockThickness = BEDROCK_THICKNESS.get();
+        TerrainBand terrainBand = TERRAIN_BAND.get();
+        int terrainBandMinY = TERRAIN_BAND_MIN_Y.get();
+        int terrainBandMaxY = TERRAIN_BAND_MAX_Y.get();
+
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].trim();
+            int separator = part.indexOf('=');
+            if (separator < 0) {
+                WorldModifier.LOGGER.warn("[WorldModifierConfig] Invalid setting '{}' for {}", part, dimension);
+                continue;
+            }
+            String key = part.substring(0, separator).trim();
+            String value = part.substring(separator + 1).trim();
+            try {
+                switch (key) {
+                    case "mode" -> mode = FilterMode.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "list" -> list = parseBiomes(Arrays.asList(value.split(",")));
+                    case "replacement" -> replacement = ReplacementStrategy.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "fallbacks" -> {
+                        fallbacks.clear();
+                        fallbackWeights.clear();
+                        parseFallbacks(Arrays.asList(value.split(",")), fallbacks, fallbackWeights);
+                    }
+                    case "fallbackCellSize" -> fallbackCellSize = Mth.clamp(Integer.parseInt(value), 4, 4096);
+                    case "seaLevel" -> seaLevel = Mth.clamp(Integer.parseInt(value), -1999, 1999);
+                    case "bedrockLevel" -> bedrockLevel = Mth.clamp(Integer.parseInt(value), -2000, 2000);
+                    case "maxHeight" -> maxHeight = Mth.clamp(Integer.parseInt(value), -2000, 2000);
+                    case "floodCaves" -> floodCaves = parseBoolean(value);
+                    case "bedrockPattern" -> bedrockPattern = BedrockPattern.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "bedrockThickness" -> bedrockThickness = Mth.clamp(Integer.parseInt(value), 1, 16);
+                    case "terrainBand" -> terrainBand = TerrainBand.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "terrainBandMinY" -> terrainBandMinY = Mth.clamp(Integer.parseInt(value), -2000, 2000);
+                    case "terrainBandMaxY" -> terrainBandMaxY = Mth.clamp(Integer.parseInt(value), -2000, 2000);
+                    default -> WorldModifier.LOGGER.warn("[WorldModifierConfig] Unknown setting '{}' for {}", key, dimension);
+                }
+            } catch (IllegalArgumentException e) {
+                WorldModifier.LOGGER.warn("[WorldModifierConfig] Invalid value '{}' for {} in {}", value, key, dimension);
+            }
+        }
+
+        dimensions.put(dimension, new WorldGenProfile(
+                mode, list, replacement,
+                fallbacks, fallbackWeights, fallbackCellSize, BIOME_CACHE_SIZE.get(),
+                seaLevel, bedrockLevel, maxHeight, floodCaves,
+                bedrockPattern, bedrockThickness,
+                terrainBand, terrainBandMinY, terrainBandMaxY, FILTER_POSSIBLE_BIOMES.get()
+        ));
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    /**
+     * @return the compiled [biomes] and [world] settings; never null. Worldgen reads the
+     *         per-dimension profiles in {@link DimensionProfiles} instead
+     */
+    public static WorldGenProfile profile() {
+        return profile;
     }
 
     // ==================== MODE & STATE QUERIES ====================
@@ -220,27 +652,21 @@ public class WorldModifierConfig {
      * @return the current filter mode
      */
     public static FilterMode getMode() {
-        return MODE.get();
+        return profile.mode;
     }
 
     /**
      * @return true if biome filtering is active
      */
     public static boolean isFilteringActive() {
-        FilterMode mode = getMode();
-        if (mode == FilterMode.DISABLED) {
-            return false;
-        }
-        return !biomeCache.isEmpty();
+        return profile.filteringActive;
     }
 
     /**
      * @return true if world modifications are active (any setting differs from vanilla defaults)
      */
     public static boolean isWorldModificationActive() {
-        return getSeaLevel() != DEFAULT_SEA_LEVEL ||
-               getBedrockLevel() != DEFAULT_BEDROCK_LEVEL ||
-               getMaxHeight() != DEFAULT_MAX_HEIGHT;
+        return profile.worldModificationActive;
     }
 
     // ==================== BIOME QUERIES ====================
@@ -249,7 +675,7 @@ public class WorldModifierConfig {
      * @return unmodifiable set of biomes in the filter list
      */
     public static Set<ResourceLocation> getBiomeList() {
-        return biomeCache;
+        return profile.biomes;
     }
 
     /**
@@ -257,29 +683,14 @@ public class WorldModifierConfig {
      * @return true if biome is allowed to generate based on current mode
      */
     public static boolean isBiomeAllowed(ResourceLocation biome) {
-        FilterMode mode = getMode();
-
-        if (mode == FilterMode.DISABLED || biomeCache.isEmpty()) {
-            return true;
-        }
-
-        boolean inList = biomeCache.contains(biome);
-
-        if (mode == FilterMode.WHITELIST) {
-            return inList;
-        } else {
-            return !inList;
-        }
+        return profile.isBiomeAllowed(biome);
     }
 
     /**
-     * @return fallback biome when original is not allowed
+     * @return first fallback biome when original is not allowed
      */
     public static ResourceLocation getFallbackBiome() {
-        if (biomeListCache.isEmpty()) {
-            return new ResourceLocation("minecraft", "plains");
-        }
-        return biomeListCache.get(0);
+        return profile.fallbackBiome;
     }
 
     // ==================== WORLD SETTING QUERIES ====================
@@ -288,20 +699,45 @@ public class WorldModifierConfig {
      * @return the configured sea level
      */
     public static int getSeaLevel() {
-        return SEA_LEVEL.get();
+        return profile.seaLevel;
     }
 
     /**
      * @return the configured bedrock level
      */
     public static int getBedrockLevel() {
-        return BEDROCK_LEVEL.get();
+        return profile.bedrockLevel;
     }
 
     /**
      * @return the configured max height
      */
     public static int getMaxHeight() {
-        return MAX_HEIGHT.get();
+        return profile.maxHeight;
+    }
+
+    // ==================== PERFORMANCE QUERIES ====================
+
+    /**
+     * @return true if filtered biomes should be kept in an on-disk tile store per dimension
+     */
+    public static boolean isBiomeTileStoreEnabled() {
+        return BIOME_TILE_STORE.get();
+    }
+
+    // ==================== PREGENERATION QUERIES ====================
+
+    /**
+     * @return maximum number of chunks pregeneration keeps in flight
+     */
+    public static int getPregenMaxInFlight() {
+        return PREGEN_MAX_IN_FLIGHT.get();
+    }
+
+    /**
+     * @return average tick time in milliseconds above which pregeneration pauses queueing
+     */
+    public static int getPregenTargetMspt() {
+        return PREGEN_TARGET_MSPT.get();
     }
 }
@@ -70,6 +70,23 @@ public class WorldModifierConfigScreen {
                         .build()
         );
 
+        biomeCategory.addEntry(
+                entryBuilder.startEnumSelector(
+                                Component.literal("Replacement"),
+                                WorldModifierConfig.ReplacementStrategy.class,
+                                WorldModifierConfig.REPLACEMENT.get()
+                        )
+                        .setDefaultValue(WorldModifierConfig.ReplacementStrategy.FALLBACK)
+                        .setTooltip(
+                                Component.literal("FALLBACK - Replace with the first listed biome"),
+                                Component.literal("CLIMATE - Replace with the allowed biome of the closest climate"),
+                                Component.literal(""),
+                                Component.literal("\u00A7aAffects newly generated chunks only")
+                        )
+                        .setSaveConsumer(WorldModifierConfig.REPLACEMENT::set)
+                        .build()
+        );
+
         // ==================== WORLD SETTINGS CATEGORY ====================
         ConfigCategory worldCategory = builder.getOrCreateCategory(
                 Component.literal("World Settings")
@@ -109,6 +126,20 @@ public class WorldModifierConfigScreen {
                                     " \u00A7c(locked)")
                     ).build()
             );
+
+            worldCategory.addEntry(
+                    entryBuilder.startTextDescription(
+                            Component.literal("\u00A77Flood Caves: \u00A7f" + WorldModifierConfig.FLOOD_CAVES.get() +
+                                    " \u00A7c(locked)")
+                    ).build()
+            );
+
+            worldCategory.addEntry(
+                    entryBuilder.startTextDescription(
+                            Component.literal("\u00A77Bedrock Floor: \u00A7f" + WorldModifierConfig.BEDROCK_PATTERN.get() +
+                                    " x" + WorldModifierConfig.BEDROCK_THICKNESS.get() + " \u00A7c(locked)")
+                    ).build()
+            );
         } else {
 
             // Use AtomicInteger to track current values for cross-field validation
@@ -213,6 +244,50 @@ public class WorldModifierConfigScreen {
                             })
                             .build()
             );
+
+            worldCategory.addEntry(
+                    entryBuilder.startBooleanToggle(
+                                    Component.literal("Flood Caves"),
+                                    WorldModifierConfig.FLOOD_CAVES.get()
+                            )
+                            .setDefaultValue(true)
+                            .setTooltip(
+                                    Component.literal("With a custom sea level, fill all open space below it with water"),
+                                    Component.literal("Off: vanilla aquifers using the custom sea level")
+                            )
+                            .setSaveConsumer(WorldModifierConfig.FLOOD_CAVES::set)
+                            .build()
+            );
+
+            worldCategory.addEntry(
+                    entryBuilder.startEnumSelector(
+                                    Component.literal("Bedrock Pattern"),
+                                    WorldModifierConfig.BedrockPattern.class,
+                                    WorldModifierConfig.BEDROCK_PATTERN.get()
+                            )
+                            .setDefaultValue(WorldModifierConfig.BedrockPattern.FLAT)
+                            .setTooltip(
+                                    Component.literal("FLAT - Solid bedrock layers"),
+                                    Component.literal("GRADIENT - Vanilla-style noisy floor")
+                            )
+                            .setSaveConsumer(WorldModifierConfig.BEDROCK_PATTERN::set)
+                            .build()
+            );
+
+            worldCategory.addEntry(
+                    entryBuilder.startIntSlider(
+                                    Component.literal("Bedrock Thickness"),
+                                    WorldModifierConfig.BEDROCK_THICKNESS.get(),
+                                    1, 16
+                            )
+                            .setDefaultValue(WorldModifierConfig.DEFAULT_BEDROCK_THICKNESS)
+                            .setTooltip(
+                                    Component.literal("Layers in the bedrock floor"),
+                                    Component.literal("Vanilla floor: 5 (with GRADIENT)")
+                            )
+                            .setSaveConsumer(WorldModifierConfig.BEDROCK_THICKNESS::set)
+                            .build()
+            );
         }
 
         // Save callback to rebuild cache after saving
@@ -0,0 +1,438 @@
+package com.worldmodifier.biome;
+
+import com.mojang.datafixers.util.Pair;
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.WorldModifierConfig.ReplacementStrategy;
+import com.worldmodifier.metrics.Diagnostics;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.levelgen.structure.Structure;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Precompiled biome replacement table for a single biome source.
+ *
+ * Design: Maps every holder in the source's possible biomes to its final replacement
+ * (allowed biomes map to themselves). Holders are keyed by identity, so the
+ * getNoiseBiome hot path is one allocation-free reference lookup instead of
+ * unwrapKey() + ResourceLocation hashing. Each non-allowed entry also carries its metrics
+ * counter, resolved at build time.
+ *
+ * With the CLIMATE replacement strategy, sources backed by a Climate.ParameterList also get a
+ * filtered copy of that list containing only allowed biomes. Searching it picks the nearest
+ * allowed climate point natively, so no post-filtering is needed and the smaller RTree is
+ * no slower than vanilla's. Those sources also get a {@link QuartBiomeCache} of final results,
+ * since every miss costs a full climate noise sample.
+ *
+ * Non-allowed biomes are spread across the profile's weighted fallbacks by a seeded hash of
+ * the coarse cell a quart position falls in. Every replacement carries a slot array holding each
+ * fallback once per unit of weight, so picking one is a hash and a multiply-shift: no allocation,
+ * no modulo and no extra noise sampling.
+ *
+ * The table also knows every biome the filtered source can still produce, and keeps a
+ * {@link BiomeRegionIndex} of where those biomes have been seen, for biome searches. Structures
+ * whose biomes are all filtered out are found from the same set, once per structure.
+ *
+ * Thread safety: A table is immutable once built and is published through a single volatile
+ * field per biome source, so any number of worldgen threads can read it without locking.
+ * Concurrent rebuilds after a reload are harmless; they produce equivalent tables and the
+ * last write wins.
+ *
+ * Invariant: A table is only valid for the profile it was built from; callers rebuild it
+ * when {@link #epoch} no longer matches the current profile's epoch.
+ */
+public final class BiomeFilterTable {
+
+    /** Profile this table was compiled from. */
+    public final WorldGenProfile profile;
+    /** Epoch of {@link #profile}, copied for a cheap staleness check. */
+    public final long epoch;
+
+    private final long seed;
+    private final int cellShift;
+    private final long configHash;
+
+    private final Reference2ObjectOpenHashMap<Holder<Biome>, Replacement> replacements;
+    @Nullable
+    private final Climate.ParameterList<Holder<Biome>> allowedParameters;
+    @Nullable
+    private final QuartBiomeCache cache;
+    private final BiomeRegionIndex regionIndex;
+    private final List<Holder<Biome>> producible;
+    // Filled lazily: structures come from the registry, which the table is built without
+    private final Map<Structure, Boolean> structures = new ConcurrentHashMap<>();
+
+    private BiomeFilterTable(WorldGenProfile profile,
+                             Reference2ObjectOpenHashMap<Holder<Biome>, Replacement> replacements,
+                             @Nullable Climate.ParameterList<Holder<Biome>> allowedParameters,
+                             @Nullable QuartBiomeCache cache,
+                             List<Holder<Biome>> producible,
+                             long seed, long configHash) {
+        this.profile = profile;
+        this.epoch = profile.epoch;
+        this.seed = seed;
+        this.cellShift = profile.fallbackCellShift;
+        this.configHash = configHash;
+        this.replacements = replacements;
+        this.allowedParameters = allowedParameters;
+        this.cache = cache;
+        this.regionIndex = new BiomeRegionIndex(producible);
+        this.producible = List.copyOf(producible);
+    }
+
+    /**
+     * @param table the currently published table, may be null
+     * @param profile the current profile
+     * @return true if the table has to be rebuilt for the profile
+     */
+    public static boolean isStale(BiomeFilterTable table, WorldGenProfile profile) {
+        return table == null || table.epoch != profile.epoch;
+    }
+
+    /**
+     * Compiles the replacement table for a biome source.
+     * Resolves the fallback biomes against the source's own holders; missing ones are skipped
+     * with a warning, reported once per source. If none is found, non-allowed biomes are left
+     * unchanged.
+     *
+     * @param profile the profile to compile
+     * @param possibleBiomes every biome the source can return
+     * @param sourceName name used in diagnostics
+     * @return the compiled table
+     */
+    public static BiomeFilterTable build(WorldGenProfile profile, Iterable<Holder<Biome>> possibleBiomes,
+                                         String sourceName) {
+        return build(profile, possibleBiomes, null, null, null, 0L, sourceName);
+    }
+
+    /**
+     * Compiles the replacement table for a biome source whose possibleBiomes() may already
+     * have been reported to the game filtered.
+     *
+     * Invariant: With a reported set, every result of the table is in it. Feature sorting was
+     * done for exactly that set, so a biome outside it must never generate, even if a later
+     * config allows it; such biomes are treated as not allowed.
+     *
+     * @param profile the profile to compile
+     * @param possibleBiomes every biome the source can return, unfiltered
+     * @param parameters the source's climate parameter list, or null if it has none
+     * @param reported the biomes possibleBiomes() reported, or null if it was not filtered
+     * @param resolved the profile's fallbacks resolved against the biome registry, or null to
+     *                 look them up in {@code possibleBiomes} by id
+     * @param seed seed of the fallback spread, normally the world seed
+     * @param sourceName name used in diagnostics
+     * @return the compiled table
+     */
+    public static BiomeFilterTable build(WorldGenProfile profile, Iterable<Holder<Biome>> possibleBiomes,
+                                         @Nullable Climate.ParameterList<Holder<Biome>> parameters,
+                                         @Nullable Set<Holder<Biome>> reported,
+                                         @Nullable FallbackSet resolved,
+                                         long seed, String sourceName) {
+        Holder<Biome>[] fallbacks = resolved != null && resolved.epoch == profile.epoch
+                ? selectFallbacks(resolved, possibleBiomes, reported, sourceName)
+                : resolveFallbacks(profile, possibleBiomes, reported, sourceName);
+
+        Reference2ObjectOpenHashMap<Holder<Biome>, Replacement> replacements = new Reference2ObjectOpenHashMap<>();
+
+        // Allowed biomes are simply absent: a miss means "keep the original"
+        for (Holder<Biome> holder : possibleBiomes) {
+            Optional<ResourceKey<Biome>> keyOpt = holder.unwrapKey();
+            if (keyOpt.isEmpty() || isAllowed(profile, holder, keyOpt.get(), reported)) {
+                continue;
+            }
+            if (fallbacks == null) {
+                replacements.put(holder, new Replacement(singleSlot(holder), WorldModifierMetrics.FALLBACK_MISSES));
+            } else {
+                replacements.put(holder, new Replacement(fallbacks,
+                        WorldModifierMetrics.replacementCounter(keyOpt.get().location())));
+            }
+        }
+
+        replacements.trim();
+
+        Climate.ParameterList<Holder<Biome>> allowedParameters = null;
+        if (parameters != null && profile.replacement == ReplacementStrategy.CLIMATE) {
+            allowedParameters = filterParameters(profile, parameters, reported, sourceName);
+        }
+
+        QuartBiomeCache cache = null;
+        if (parameters != null && profile.biomeCacheSize > 0) {
+            cache = new QuartBiomeCache(profile.biomeCacheSize);
+        }
+
+        // Every result of replace(), in possibleBiomes order; a superset with CLIMATE, which never uses the fallback
+        ReferenceLinkedOpenHashSet<Holder<Biome>> producible = new ReferenceLinkedOpenHashSet<>();
+        for (Holder<Biome> holder : possibleBiomes) {
+            Replacement replacement = replacements.get(holder);
+            if (replacement == null) {
+                producible.add(holder);
+            } else {
+                producible.addAll(Arrays.asList(replacement.slots));
+            }
+        }
+
+        long configHash = configHash(profile, possibleBiomes, reported, allowedParameters != null, seed);
+        return new BiomeFilterTable(profile, replacements, allowedParameters, cache, new ArrayList<>(producible), seed,
+                configHash);
+    }
+
+    /**
+     * Hashes everything that decides the table's results, from ids and names only, so the same
+     * config gives the same hash after a restart. The epoch is left out for the same reason.
+     *
+     * @return the hash; never 0, which marks an unclaimed tile in {@link BiomeTileStore}
+     */
+    private static long configHash(WorldGenProfile profile, Iterable<Holder<Biome>> possibleBiomes,
+                                   @Nullable Set<Holder<Biome>> reported, boolean climate, long seed) {
+        long hash = mix(seed);
+        hash = mix(hash ^ profile.mode.name().hashCode());
+        hash = mix(hash ^ profile.replacement.name().hashCode());
+        hash = mix(hash ^ (climate ? 1 : 0));
+        hash = mix(hash ^ profile.fallbackCellShift);
+        for (ResourceLocation id : profile.biomeList) {
+            hash = mix(hash ^ id.hashCode());
+        }
+        for (int i = 0; i < profile.fallbackBiomes.size(); i++) {
+            hash = mix(hash ^ profile.fallbackBiomes.get(i).hashCode());
+            hash = mix(hash ^ profile.fallbackWeights.get(i));
+        }
+        for (Holder<Biome> holder : possibleBiomes) {
+            hash = mix(hash ^ idHash(holder));
+            hash = mix(hash ^ (reported == null || reported.contains(holder) ? 1 : 2));
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int idHash(Holder<Biome> holder) {
+        return holder.unwrapKey().map(key -> key.location().hashCode()).orElse(0);
+    }
+
+    /**
+     * Resolves the profile's fallbacks against the source's holders and expands them by weight.
+     *
+     * @return one slot per unit of weight, or null if no fallback can be used
+     */
+    @Nullable
+    private static Holder<Biome>[] resolveFallbacks(WorldGenProfile profile, Iterable<Holder<Biome>> possibleBiomes,
+                                                    @Nullable Set<Holder<Biome>> reported, String sourceName) {
+        List<Holder<Biome>> slots = new ArrayList<>();
+        for (int i = 0; i < profile.fallbackBiomes.size(); i++) {
+            ResourceLocation id = profile.fallbackBiomes.get(i);
+            Holder<Biome> fallback = null;
+            for (Holder<Biome> holder : possibleBiomes) {
+                if (holder.is(id) && (reported == null || reported.contains(holder))) {
+                    fallback = holder;
+                    break;
+                }
+            }
+            if (fallback == null) {
+                Diagnostics.warnOnce("missing-fallback:" + sourceName + ":" + id,
+                        "[BiomeFilterTable.build]: Fallback biome {} not found in the possible biomes of {}", id, sourceName);
+                continue;
+            }
+            for (int w = 0; w < profile.fallbackWeights.get(i); w++) {
+                slots.add(fallback);
+            }
+        }
+        return finishFallbacks(slots, reported, sourceName);
+    }
+
+    /**
+     * Keeps the registry-resolved fallbacks the source can produce and expands them by weight.
+     * One identity set of the possible biomes replaces a search per fallback.
+     *
+     * @return one slot per unit of weight, or null if no fallback can be used
+     */
+    @Nullable
+    private static Holder<Biome>[] selectFallbacks(FallbackSet resolved, Iterable<Holder<Biome>> possibleBiomes,
+                                                   @Nullable Set<Holder<Biome>> reported, String sourceName) {
+        ReferenceOpenHashSet<Holder<Biome>> possible = new ReferenceOpenHashSet<>();
+        for (Holder<Biome> holder : possibleBiomes) {
+            possible.add(holder);
+        }
+
+        List<Holder<Biome>> slots = new ArrayList<>();
+        for (int i = 0; i < resolved.size(); i++) {
+            Holder<Biome> fallback = resolved.holder(i);
+            if (!possible.contains(fallback) || (reported != null && !reported.contains(fallback))) {
+                Diagnostics.warnOnce("missing-fallback:" + sourceName + ":" + resolved.id(i),
+                        "[BiomeFilterTable.build]: Fallback biome {} not found in the possible biomes of {}",
+                        resolved.id(i), sourceName);
+                continue;
+            }
+            for (int w = 0; w < resolved.weight(i); w++) {
+                slots.add(fallback);
+            }
+        }
+        return finishFallbacks(slots, reported, sourceName);
+    }
+
+    @Nullable
+    private static Holder<Biome>[] finishFallbacks(List<Holder<Biome>> slots, @Nullable Set<Holder<Biome>> reported,
+                                                   String sourceName) {
+        if (slots.isEmpty() && reported != null && !reported.isEmpty()) {
+            Holder<Biome> fallback = reported.iterator().next();
+            Diagnostics.warnOnce("unreported-fallback:" + sourceName,
+                    "[BiomeFilterTable.build]: No fallback was reported by {} at world load, using {} instead until restart",
+                    sourceName, fallback.unwrapKey().map(key -> key.location().toString()).orElse("[unregistered]"));
+            return singleSlot(fallback);
+        }
+        return slots.isEmpty() ? null : toArray(slots);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Holder<Biome>[] toArray(List<Holder<Biome>> holders) {
+        return holders.toArray(new Holder[0]);
+    }
+
+    private static Holder<Biome>[] singleSlot(Holder<Biome> holder) {
+        return toArray(List.of(holder));
+    }
+
+    private static boolean isAllowed(WorldGenProfile profile, Holder<Biome> holder, ResourceKey<Biome> key,
+                                     @Nullable Set<Holder<Biome>> reported) {
+        return profile.isBiomeAllowed(key.location()) && (reported == null || reported.contains(holder));
+    }
+
+    /**
+     * Builds a parameter list containing only the allowed biomes' climate points.
+     *
+     * @return the filtered list, or null if no allowed biome is left
+     */
+    @Nullable
+    private static Climate.ParameterList<Holder<Biome>> filterParameters(WorldGenProfile profile,
+                                                                          Climate.ParameterList<Holder<Biome>> parameters,
+                                                                          @Nullable Set<Holder<Biome>> reported,
+                                                                          String sourceName) {
+        List<Pair<Climate.ParameterPoint, Holder<Biome>>> allowed = new ArrayList<>();
+        for (Pair<Climate.ParameterPoint, Holder<Biome>> entry : parameters.values()) {
+            Optional<ResourceKey<Biome>> keyOpt = entry.getSecond().unwrapKey();
+            if (keyOpt.isEmpty() || isAllowed(profile, entry.getSecond(), keyOpt.get(), reported)) {
+                allowed.add(entry);
+            }
+        }
+
+        if (allowed.isEmpty()) {
+            Diagnostics.warnOnce("no-allowed-climate:" + sourceName,
+                    "[BiomeFilterTable.filterParameters]: No allowed biome in the climate parameters of {}, using fallback replacement",
+                    sourceName);
+            return null;
+        }
+        return new Climate.ParameterList<>(allowed);
+    }
+
+    /**
+     * @return climate parameters restricted to allowed biomes, or null if the source should
+     *         be post-filtered with {@link #replace(Holder)} instead
+     */
+    @Nullable
+    public Climate.ParameterList<Holder<Biome>> allowedParameters() {
+        return allowedParameters;
+    }
+
+    /**
+     * @return cache of final results by quart position, or null if caching is disabled
+     */
+    @Nullable
+    public QuartBiomeCache cache() {
+        return cache;
+    }
+
+    /**
+     * @return hash of the settings that decide this table's results, stable across restarts
+     */
+    public long configHash() {
+        return configHash;
+    }
+
+    /**
+     * @return every biome this table can produce, in the source's order
+     */
+    public List<Holder<Biome>> producible() {
+        return producible;
+    }
+
+    /**
+     * @return index of the biomes this table has filled into each region
+     */
+    public BiomeRegionIndex regionIndex() {
+        return regionIndex;
+    }
+
+    /**
+     * @param structure the structure about to be placed
+     * @return false if none of the structure's biomes can be produced by this table,
+     *         so no start of it can ever pass the biome check
+     */
+    public boolean allowsStructure(Holder<Structure> structure) {
+        return structures.computeIfAbsent(structure.value(), value -> {
+            for (Holder<Biome> biome : producible) {
+                if (value.biomes().contains(biome)) {
+                    return true;
+                }
+            }
+            WorldModifier.LOGGER.info("[BiomeFilterTable.allowsStructure]: No allowed biome for structure {}, skipping its starts",
+                    structure.unwrapKey().map(key -> key.location().toString()).orElse("[unregistered]"));
+            return false;
+        });
+    }
+
+    /**
+     * @param original the biome picked by the biome source
+     * @param quartX quart x of the lookup, picks the fallback cell
+     * @param quartZ quart z of the lookup, picks the fallback cell
+     * @return the biome that should generate instead; the original if it is allowed or unknown
+     */
+    public Holder<Biome> replace(Holder<Biome> original, int quartX, int quartZ) {
+        Replacement replacement = replacements.get(original);
+        if (replacement == null) {
+            return original;
+        }
+        replacement.counter.increment();
+        return pick(replacement.slots, quartX, quartZ);
+    }
+
+    /**
+     * Same as {@link #replace(Holder, int, int)} without counting the replacement, for tools that
+     * only inspect the filter.
+     */
+    public Holder<Biome> peek(Holder<Biome> original, int quartX, int quartZ) {
+        Replacement replacement = replacements.get(original);
+        return replacement == null ? original : pick(replacement.slots, quartX, quartZ);
+    }
+
+    private Holder<Biome> pick(Holder<Biome>[] slots, int quartX, int quartZ) {
+        if (slots.length == 1) {
+            return slots[0];
+        }
+        long cell = ((long) (quartX >> cellShift) << 32) ^ ((quartZ >> cellShift) & 0xFFFFFFFFL);
+        long hash = mix(cell ^ seed);
+        // Top 32 hash bits scaled to the slot count: uniform, and cheaper than a modulo
+        return slots[(int) (((hash >>> 32) * slots.length) >>> 32)];
+    }
+
+    // Shared with the quart cache, so neighbouring cells get unrelated picks
+    private static long mix(long key) {
+        return QuartBiomeCache.mix(key);
+    }
+
+    private record Replacement(Holder<Biome>[] slots, LongAdder counter) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.worldmodifier.biome;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Per-region bitmap of the filtered biomes of the chunks one biome source has generated.
+ *
+ * Design: Every biome the filter can produce gets a bit; each region (32x32 chunks) keeps the
+ * bits of the biomes filled into its chunks so far, and which of its chunks have been filled. A
+ * biome search skips the sample points in regions whose chunks have all been filled without a
+ * matching biome, and samples everywhere else in vanilla's nearest-first order.
+ *
+ * Contract: Only chunks whose biomes came straight from this index's filter table may be
+ * recorded (no blending, no retrogen, no profile from before a reload), since a region is only
+ * trusted to lack a biome once all its chunks have been recorded. Owned by a
+ * {@link BiomeFilterTable}, so a config reload starts an empty index.
+ *
+ * Thread safety: Chunk generation and searches may come from different threads; all access to
+ * the region map is synchronized on the index.
+ */
+public final class BiomeRegionIndex {
+
+    private static final int CHUNKS_PER_REGION = 32 * 32;
+
+    private final Reference2IntOpenHashMap<Holder<Biome>> bits = new Reference2IntOpenHashMap<>();
+    private final Holder<Biome>[] biomes;
+    private final int words;
+    private final Long2ObjectOpenHashMap<Region> regions = new Long2ObjectOpenHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    BiomeRegionIndex(List<Holder<Biome>> producible) {
+        this.biomes = producible.toArray(new Holder[0]);
+        for (int i = 0; i < biomes.length; i++) {
+            bits.put(biomes[i], i);
+        }
+        bits.defaultReturnValue(-1);
+        this.words = Math.max(1, (biomes.length + 63) >> 6);
+    }
+
+    /**
+     * Records the biomes of a chunk that has just been filled from the biome source.
+     */
+    public void record(ChunkAccess chunk) {
+        long[] seen = new long[words];
+        for (LevelChunkSection section : chunk.getSections()) {
+            section.getBiomes().getAll(biome -> {
+                int bit = bits.getInt(biome);
+                if (bit >= 0) {
+                    seen[bit >> 6] |= 1L << bit;
+                }
+            });
+        }
+
+        ChunkPos pos = chunk.getPos();
+        long key = ChunkPos.asLong(pos.getRegionX(), pos.getRegionZ());
+        int slot = pos.getRegionLocalX() | pos.getRegionLocalZ() << 5;
+        synchronized (this) {
+            Region region = regions.computeIfAbsent(key, k -> new Region(words));
+            for (int i = 0; i < words; i++) {
+                region.biomes[i] |= seen[i];
+            }
+            long bit = 1L << slot;
+            if ((region.chunks[slot >> 6] & bit) == 0) {
+                region.chunks[slot >> 6] |= bit;
+                region.filled++;
+            }
+        }
+    }
+
+    /**
+     * @return bits of the biomes matching the predicate, all zero if none does
+     */
+    public long[] mask(Predicate<Holder<Biome>> predicate) {
+        long[] mask = new long[words];
+        for (int i = 0; i < biomes.length; i++) {
+            if (predicate.test(biomes[i])) {
+                mask[i >> 6] |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return true once some region has had all its chunks recorded
+     */
+    public synchronized boolean hasCompleteRegions() {
+        for (Region region : regions.values()) {
+            if (region.filled == CHUNKS_PER_REGION) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param region region key, as {@link ChunkPos#asLong(int, int)} of the region coordinates
+     * @return true if all chunks of the region have been recorded and none has a matching biome
+     */
+    public synchronized boolean lacks(long[] mask, long region) {
+        Region known = regions.get(region);
+        return known != null && known.filled == CHUNKS_PER_REGION && !intersects(known.biomes, mask);
+    }
+
+    /**
+     * @return true if no bit is set
+     */
+    public static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Region {
+
+        private final long[] biomes;
+        private final long[] chunks = new long[CHUNKS_PER_REGION >> 6];
+        private int filled;
+
+        private Region(int words) {
+            this.biomes = new long[words];
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.worldmodifier.biome;
+
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.metrics.Diagnostics;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.ResourceLocationException;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.chunk.ChunkAccess;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * On-disk store of filtered biomes by quart position for one dimension, memory-mapped per tile.
+ *
+ * Design: The dimension is cut into square tiles of 64x64 quarts (16x16 chunks), each a file
+ * holding one short per quart over the dimension's full height, mapped with NIO so lookups are
+ * plain memory reads. A value is an index into the store's palette file (0 = unknown); the
+ * palette only ever grows, and each new entry is synced to disk before any tile refers to it.
+ *
+ * Tiles are filled with a chunk's biomes once they have been generated without blending, so a
+ * stored value is exactly what the filtered source returned for that quart. Later lookups of
+ * the same spot (structure checks near generated chunks, biome searches, regenerating trimmed
+ * chunks) then skip the climate noise.
+ *
+ * At most {@link #MAX_MAPPED_BYTES} of tiles are mapped at once, so a pregen or survey over a
+ * large area does not map gigabytes or run into the OS limit on mappings. Past it, the least
+ * recently used tile (approximated with a clock: a tile used since the last sweep gets a second
+ * chance) is forced to disk and dropped; its mapping goes away once no thread holds it. Tiles
+ * found missing on disk are remembered in a bounded list, so repeated misses skip the file system.
+ *
+ * Every tile carries the config hash of the filter table that wrote it (see
+ * {@link BiomeFilterTable#configHash()}). A lookup with another hash misses, and the first
+ * write with a new hash clears the tile, so values of an old config are never returned.
+ *
+ * Contract: Only holds biomes the biome source returns for the dimension's climate; changing
+ * a world's worldgen datapacks needs the store's folder deleted, as the hash does not cover
+ * noise settings.
+ *
+ * Thread safety: The tile map is guarded by a StampedLock, read optimistically on lookups.
+ * Writes to a tile, including the reset for a new hash, hold a lock picked by the tile's key
+ * rather than its buffer, so they stay serialized when a tile is evicted and mapped again. A
+ * writer checks under that lock that its filter table is still current and that the tile
+ * carries its hash, so values under a hash were always written with that hash's table. Readers
+ * take no lock: they read the hash before and after the value, like a seqlock, and miss if it
+ * changed; a reset zeroes the hash before clearing. A thread still holding an evicted tile's
+ * buffer keeps using the same shared mapping of the file, so its writes are not lost and a
+ * later mapping of the tile sees them.
+ */
+public final class BiomeTileStore implements AutoCloseable {
+
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private static final int MAGIC = 0x574D4254; // "WMBT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int HASH_OFFSET = 8;
+    private static final int MIN_Y_OFFSET = 16;
+    private static final int HEIGHT_OFFSET = 20;
+
+    private static final String PALETTE_FILE = "palette.txt";
+
+    // About 340 overworld tiles, or 32 in a 4000 block tall world; at least a few are always kept
+    private static final long MAX_MAPPED_BYTES = 256L << 20;
+    private static final int MIN_MAPPED_TILES = 4;
+    // Tiles known not to exist on disk yet, so misses do not touch the file system
+    private static final int MAX_MISSING_TILES = 4096;
+    // Writer locks, picked by tile key
+    private static final int WRITE_LOCK_STRIPES = 64;
+
+    // Returned by lookup for a tile known to be missing on disk; never stored in the tile map
+    private static final Tile MISSING = new Tile(null);
+
+    private final Path directory;
+    private final int minQuartY;
+    private final int heightQuarts;
+    private final int tileBytes;
+    private final int maxTiles;
+
+    private final StampedLock lock = new StampedLock();
+    // In clock order: the hand is the first entry, tiles given a second chance move to the end
+    private final Long2ObjectLinkedOpenHashMap<Tile> tiles = new Long2ObjectLinkedOpenHashMap<>();
+    // Oldest first; the oldest is dropped when full
+    private final LongLinkedOpenHashSet missing = new LongLinkedOpenHashSet();
+    private final Object[] writeLocks = new Object[WRITE_LOCK_STRIPES];
+
+    // Guards ids and palette growth; byId is republished as a copy on every new entry
+    private final Object paletteLock = new Object();
+    private final Reference2IntOpenHashMap<Holder<Biome>> ids = new Reference2IntOpenHashMap<>();
+    private volatile Holder<Biome>[] byId;
+
+    private BiomeTileStore(Path directory, int minQuartY, int heightQuarts, Holder<Biome>[] palette) {
+        this.directory = directory;
+        this.minQuartY = minQuartY;
+        this.heightQuarts = heightQuarts;
+        this.tileBytes = HEADER_BYTES + TILE_SIZE * TILE_SIZE * heightQuarts * Short.BYTES;
+        this.maxTiles = (int) Math.max(MIN_MAPPED_TILES, MAX_MAPPED_BYTES / tileBytes);
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
+        }
+        this.byId = palette;
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i] != null) {
+                ids.put(palette[i], i + 1);
+            }
+        }
+    }
+
+    /**
+     * Opens the store in a directory, creating it if needed.
+     *
+     * @param directory folder of the dimension's tiles
+     * @param registry the server's biome registry, to resolve the palette
+     * @param minY lowest block y of the dimension
+     * @param height block height of the dimension
+     * @return the store, or null if the directory cannot be used
+     */
+    @Nullable
+    public static BiomeTileStore open(Path directory, Registry<Biome> registry, int minY, int height) {
+        try {
+            Files.createDirectories(directory);
+            List<Holder<Biome>> palette = new ArrayList<>();
+            Path file = directory.resolve(PALETTE_FILE);
+            if (Files.exists(file)) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    palette.add(resolve(registry, line.trim()));
+                }
+            }
+            @SuppressWarnings("unchecked")
+            Holder<Biome>[] byId = palette.toArray(new Holder[0]);
+            return new BiomeTileStore(directory, QuartPos.fromBlock(minY), QuartPos.fromBlock(height), byId);
+        } catch (IOException e) {
+            WorldModifier.LOGGER.error("[BiomeTileStore.open]: Failed to open biome tiles in {}", directory, e);
+            return null;
+        }
+    }
+
+    // Entries of removed biomes stay in the palette as null, so later indices keep their meaning
+    @Nullable
+    private static Holder<Biome> resolve(Registry<Biome> registry, String line) {
+        try {
+            return registry.getHolder(ResourceKey.create(Registries.BIOME, new ResourceLocation(line))).orElse(null);
+        } catch (ResourceLocationException e) {
+            return null;
+        }
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * @param configHash hash of the filter table asking
+     * @return the stored biome at the quart position, or null if none was stored with that hash
+     */
+    @Nullable
+    public Holder<Biome> get(long configHash, int quartX, int quartY, int quartZ) {
+        int y = quartY - minQuartY;
+        if (y < 0 || y >= heightQuarts) {
+            return null;
+        }
+        MappedByteBuffer buffer = tile(tileKey(quartX, quartZ), false);
+        if (buffer == null || buffer.getLong(HASH_OFFSET) != configHash) {
+            return null;
+        }
+        VarHandle.acquireFence();
+        int id = buffer.getShort(offset(quartX, y, quartZ)) & 0xFFFF;
+        VarHandle.acquireFence();
+        // Reset for another config while reading: the value may belong to it
+        if (buffer.getLong(HASH_OFFSET) != configHash) {
+            return null;
+        }
+        Holder<Biome>[] palette = byId;
+        return id == 0 || id > palette.length ? null : palette[id - 1];
+    }
+
+    /**
+     * Stores the biomes of a chunk that has just been filled from the biome source.
+     *
+     * @param configHash hash of the filter table the chunk was filled with
+     * @param chunk the chunk
+     * @param current checked under the tile's write lock; the chunk is dropped once its filter
+     *                table is no longer current, so a stale writer never claims a tile
+     */
+    public void putChunk(long configHash, ChunkAccess chunk, BooleanSupplier current) {
+        ChunkPos pos = chunk.getPos();
+        int minX = QuartPos.fromSection(pos.x);
+        int minZ = QuartPos.fromSection(pos.z);
+        long key = tileKey(minX, minZ);
+        MappedByteBuffer buffer = tile(key, true);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (writeLocks[(int) (HashCommon.mix(key) & (WRITE_LOCK_STRIPES - 1))]) {
+            if (!current.getAsBoolean()) {
+                return;
+            }
+            if (buffer.getLong(HASH_OFFSET) != configHash) {
+                reset(buffer, configHash);
+            }
+            writeChunk(buffer, chunk, minX, minZ);
+        }
+    }
+
+    private void writeChunk(MappedByteBuffer buffer, ChunkAccess chunk, int minX, int minZ) {
+        int fromY = Math.max(QuartPos.fromBlock(chunk.getMinBuildHeight()), minQuartY);
+        int toY = Math.min(QuartPos.fromBlock(chunk.getMaxBuildHeight()), minQuartY + heightQuarts);
+        // Neighbouring quarts mostly share a biome, so the palette lock is rarely taken twice in a row
+        Holder<Biome> last = null;
+        int lastId = 0;
+        for (int quartY = fromY; quartY < toY; quartY++) {
+            for (int dz = 0; dz < 4; dz++) {
+                for (int dx = 0; dx < 4; dx++) {
+                    Holder<Biome> biome = chunk.getNoiseBiome(minX + dx, quartY, minZ + dz);
+                    if (biome != last) {
+                        last = biome;
+                        lastId = idOf(biome);
+                    }
+                    if (lastId != 0) {
+                        buffer.putShort(offset(minX + dx, quartY - minQuartY, minZ + dz), (short) lastId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes every mapped tile to disk and forgets them. The store can still be used afterwards;
+     * tiles are mapped again on demand.
+     */
+    @Override
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            for (Tile tile : tiles.values()) {
+                tile.buffer.force();
+            }
+            WorldModifier.LOGGER.info("[BiomeTileStore.close]: Flushed {} biome tiles in {}", tiles.size(), directory);
+            tiles.clear();
+            missing.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== TILES ====================
+
+    private static long tileKey(int quartX, int quartZ) {
+        return ChunkPos.asLong(quartX >> TILE_SHIFT, quartZ >> TILE_SHIFT);
+    }
+
+    private int offset(int quartX, int y, int quartZ) {
+        return HEADER_BYTES + ((y << (2 * TILE_SHIFT)) + ((quartZ & TILE_MASK) << TILE_SHIFT) + (quartX & TILE_MASK)) * Short.BYTES;
+    }
+
+    @Nullable
+    private MappedByteBuffer tile(long key, boolean create) {
+        Tile tile = null;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                tile = lookup(key, create);
+            } catch (RuntimeException e) {
+                // Torn read of a map being resized; validation fails below
+                tile = null;
+            }
+        }
+        if (stamp == 0 || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                tile = lookup(key, create);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (tile == MISSING) {
+            return null;
+        }
+        if (tile != null) {
+            // Only written when the clock hand has cleared it, so hits do not dirty the cache line
+            if (!tile.used) {
+                tile.used = true;
+            }
+            return tile.buffer;
+        }
+        return openTile(key, create);
+    }
+
+    /**
+     * @return the mapped tile, {@link #MISSING} if it is known not to exist and need not be
+     *         created, or null to open it
+     */
+    @Nullable
+    private Tile lookup(long key, boolean create) {
+        Tile tile = tiles.get(key);
+        if (tile == null && !create && missing.contains(key)) {
+            return MISSING;
+        }
+        return tile;
+    }
+
+    @Nullable
+    private MappedByteBuffer openTile(long key, boolean create) {
+        long stamp = lock.writeLock();
+        try {
+            Tile tile = tiles.get(key);
+            if (tile != null) {
+                return tile.buffer;
+            }
+            Path file = directory.resolve("tile." + ChunkPos.getX(key) + "." + ChunkPos.getZ(key) + ".bin");
+            if (!create && !Files.exists(file)) {
+                remember(key);
+                return null;
+            }
+            MappedByteBuffer buffer;
+            boolean created;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                created = channel.size() == 0;
+                // The mapping stays valid after the channel is closed; a new file is extended with zeros
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, tileBytes);
+            }
+            if (created || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(MIN_Y_OFFSET) != minQuartY || buffer.getInt(HEIGHT_OFFSET) != heightQuarts) {
+                // A file written for another height or version: nothing in it can be trusted
+                if (!created) {
+                    clear(buffer);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(HASH_OFFSET, 0L);
+                buffer.putInt(MIN_Y_OFFSET, minQuartY);
+                buffer.putInt(HEIGHT_OFFSET, heightQuarts);
+            }
+            missing.remove(key);
+            evictIfFull();
+            tiles.put(key, new Tile(buffer));
+            return buffer;
+        } catch (IOException e) {
+            Diagnostics.warnOnce("tile-store:" + directory,
+                    "[BiomeTileStore.openTile]: Failed to map biome tiles in {}, skipping them: {}", directory, e.toString());
+            remember(key);
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Records a tile as missing on disk, forgetting the oldest such tile when full.
+     * Called under the write lock.
+     */
+    private void remember(long key) {
+        if (missing.size() >= MAX_MISSING_TILES) {
+            missing.removeFirstLong();
+        }
+        missing.add(key);
+    }
+
+    /**
+     * Drops tiles until there is room for one more, sweeping the clock hand past tiles used since
+     * its last pass. Called under the write lock.
+     */
+    private void evictIfFull() {
+        while (tiles.size() >= maxTiles) {
+            long key = tiles.firstLongKey();
+            Tile tile = tiles.removeFirst();
+            if (tile.used) {
+                tile.used = false;
+                tiles.putAndMoveToLast(key, tile);
+            } else {
+                tile.buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Clears a tile written with another config and claims it for the given hash. Called under
+     * the tile's write lock. The hash is zeroed first, so readers stop trusting the tile before
+     * any value changes, and the cleared values are forced to disk before the new hash, so a
+     * crash can never leave old values under it.
+     */
+    private void reset(MappedByteBuffer buffer, long configHash) {
+        buffer.putLong(HASH_OFFSET, 0L);
+        VarHandle.fullFence();
+        clear(buffer);
+        buffer.force();
+        VarHandle.releaseFence();
+        buffer.putLong(HASH_OFFSET, configHash);
+    }
+
+    private void clear(MappedByteBuffer buffer) {
+        for (int i = HEADER_BYTES; i < tileBytes; i += Long.BYTES) {
+            buffer.putLong(i, 0L);
+        }
+    }
+
+    /**
+     * @return palette index of the biome plus one, adding it if needed; 0 if it cannot be stored
+     */
+    private int idOf(Holder<Biome> biome) {
+        synchronized (paletteLock) {
+            int id = ids.getInt(biome);
+            if (id != 0) {
+                return id;
+            }
+            Optional<ResourceKey<Biome>> key = biome.unwrapKey();
+            Holder<Biome>[] palette = byId;
+            if (key.isEmpty() || palette.length >= 0xFFFF) {
+                return 0;
+            }
+            try {
+                // Synced before any tile refers to the entry
+                Files.writeString(directory.resolve(PALETTE_FILE), key.get().location() + "\n", StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                Diagnostics.warnOnce("tile-palette:" + directory,
+                        "[BiomeTileStore.idOf]: Failed to write the biome palette in {}: {}", directory, e.toString());
+                return 0;
+            }
+            Holder<Biome>[] grown = Arrays.copyOf(palette, palette.length + 1);
+            grown[palette.length] = biome;
+            byId = grown;
+            ids.put(biome, grown.length);
+            return grown.length;
+        }
+    }
+
+    private static final class Tile {
+
+        @Nullable
+        private final MappedByteBuffer buffer;
+        // Set on every lookup without locking; cleared by the clock hand
+        private volatile boolean used = true;
+
+        private Tile(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.worldmodifier.biome;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.metrics.Diagnostics;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A profile's fallback biomes resolved against the server's biome registry.
+ *
+ * Design: Resolved once per dimension when the server starts and after every reload, so filter
+ * tables only check which of these holders their source can produce instead of searching by id.
+ * Ids missing from the registry, in the fallbacks or the biome list, are reported here once;
+ * a biome source compiled later can only narrow the set down further.
+ *
+ * Invariant: Immutable; only valid for the profile with {@link #epoch}.
+ */
+public final class FallbackSet {
+
+    /** Epoch of the profile this set was resolved for. */
+    public final long epoch;
+
+    private final List<Holder<Biome>> holders;
+    private final List<Integer> weights;
+    private final List<ResourceLocation> ids;
+
+    private FallbackSet(long epoch, List<Holder<Biome>> holders, List<Integer> weights, List<ResourceLocation> ids) {
+        this.epoch = epoch;
+        this.holders = List.copyOf(holders);
+        this.weights = List.copyOf(weights);
+        this.ids = List.copyOf(ids);
+    }
+
+    /**
+     * @param profile the profile to resolve
+     * @param registry the server's biome registry
+     * @param dimension the dimension the profile belongs to, for diagnostics
+     * @return the fallbacks that exist in the registry, in profile order
+     */
+    public static FallbackSet resolve(WorldGenProfile profile, Registry<Biome> registry, ResourceLocation dimension) {
+        List<Holder<Biome>> holders = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        List<ResourceLocation> ids = new ArrayList<>();
+        for (int i = 0; i < profile.fallbackBiomes.size(); i++) {
+            ResourceLocation id = profile.fallbackBiomes.get(i);
+            Optional<? extends Holder<Biome>> holder = registry.getHolder(ResourceKey.create(Registries.BIOME, id));
+            if (holder.isEmpty()) {
+                Diagnostics.warnOnce("unknown-fallback:" + dimension + ":" + id,
+                        "[FallbackSet.resolve]: Fallback biome {} for {} does not exist", id, dimension);
+                continue;
+            }
+            holders.add(holder.get());
+            weights.add(profile.fallbackWeights.get(i));
+            ids.add(id);
+        }
+
+        if (profile.filteringActive) {
+            for (ResourceLocation id : profile.biomeList) {
+                if (!registry.containsKey(id)) {
+                    Diagnostics.warnOnce("unknown-biome:" + dimension + ":" + id,
+                            "[FallbackSet.resolve]: Biome {} in the list for {} does not exist", id, dimension);
+                }
+            }
+        }
+        return new FallbackSet(profile.epoch, holders, weights, ids);
+    }
+
+    /**
+     * @return number of resolved fallbacks
+     */
+    public int size() {
+        return holders.size();
+    }
+
+    Holder<Biome> holder(int index) {
+        return holders.get(index);
+    }
+
+    int weight(int index) {
+        return weights.get(index);
+    }
+
+    ResourceLocation id(int index) {
+        return ids.get(index);
+    }
+}
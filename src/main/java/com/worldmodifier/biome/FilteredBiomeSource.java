@@ -0,0 +1,16 @@
+package com.worldmodifier.biome;
+
+import javax.annotation.Nullable;
+
+/**
+ * Implemented by biome sources (through their mixins) whose output is filtered.
+ * Gives code outside the mixins access to the source's compiled filter.
+ */
+public interface FilteredBiomeSource {
+
+    /**
+     * @return the filter table for the current profile, or null if filtering is inactive
+     */
+    @Nullable
+    BiomeFilterTable worldmodifier$currentFilterTable();
+}
@@ -0,0 +1,174 @@
+package com.worldmodifier.biome;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded memoization cache of filtered biome results keyed by packed quart position.
+ *
+ * Design: Lock-striped into a fixed number of shards. Each shard is an open-addressed table of
+ * primitive long keys probed within a small window; when the window is full, a CLOCK sweep over
+ * it evicts the first entry that has not been hit since the last sweep. Reads are optimistic
+ * (StampedLock) and allocation-free; writes take the shard's write lock.
+ *
+ * Contract: Results are only valid for one climate per biome source, which holds for every
+ * source bound to a single dimension. Owned by a {@link BiomeFilterTable}, so a config reload
+ * starts from an empty cache. Hit/miss counters are shared by all caches, since the size is a
+ * single global setting.
+ */
+public final class QuartBiomeCache {
+
+    private static final int SHARD_BITS = 4;
+    private static final int SHARDS = 1 << SHARD_BITS;
+    private static final int PROBE_WINDOW = 8;
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    /**
+     * @param capacity approximate total number of entries, rounded up to fill every shard
+     */
+    public QuartBiomeCache(int capacity) {
+        int perShard = Integer.highestOneBit(Math.max(PROBE_WINDOW, (capacity + SHARDS - 1) / SHARDS) - 1) << 1;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(perShard);
+        }
+    }
+
+    /**
+     * @return the cached biome at the quart position, or null on a miss
+     */
+    @Nullable
+    public Holder<Biome> get(int quartX, int quartY, int quartZ) {
+        long key = BlockPos.asLong(quartX, quartY, quartZ);
+        long hash = mix(key);
+        Holder<Biome> holder = shards[(int) hash & (SHARDS - 1)].get(key, (int) (hash >>> SHARD_BITS));
+        if (holder != null) {
+            HITS.increment();
+        } else {
+            MISSES.increment();
+        }
+        return holder;
+    }
+
+    /**
+     * Stores the filtered biome for the quart position, evicting an old entry if needed.
+     */
+    public void put(int quartX, int quartY, int quartZ, Holder<Biome> holder) {
+        long key = BlockPos.asLong(quartX, quartY, quartZ);
+        long hash = mix(key);
+        shards[(int) hash & (SHARDS - 1)].put(key, (int) (hash >>> SHARD_BITS), holder);
+    }
+
+    /**
+     * @return number of hits across all caches since startup
+     */
+    public static long totalHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return number of misses across all caches since startup
+     */
+    public static long totalMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * @return total number of slots across all shards
+     */
+    public int capacity() {
+        return shards[0].keys.length * SHARDS;
+    }
+
+    // MurmurHash3's 64-bit finalizer (fmix64); spreads neighbouring quart positions across shards and slots
+    static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private static final class Shard {
+        private final StampedLock lock = new StampedLock();
+        private final long[] keys;
+        private final Object[] values;
+        private final boolean[] referenced;
+        private final int mask;
+
+        Shard(int size) {
+            keys = new long[size];
+            values = new Object[size];
+            referenced = new boolean[size];
+            mask = size - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        Holder<Biome> get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            Object found = find(key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    found = find(key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return (Holder<Biome>) found;
+        }
+
+        private Object find(long key, int hash) {
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int slot = (hash + i) & mask;
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    // Racy write is fine: the bit is only an eviction hint
+                    referenced[slot] = true;
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        void put(long key, int hash, Holder<Biome> holder) {
+            long stamp = lock.writeLock();
+            try {
+                for (int i = 0; i < PROBE_WINDOW; i++) {
+                    int slot = (hash + i) & mask;
+                    if (values[slot] == null || keys[slot] == key) {
+                        store(slot, key, holder);
+                        return;
+                    }
+                }
+
+                // Window full: CLOCK sweep, giving referenced entries a second chance
+                for (int i = 0; i < PROBE_WINDOW * 2; i++) {
+                    int slot = (hash + (i % PROBE_WINDOW)) & mask;
+                    if (!referenced[slot]) {
+                        store(slot, key, holder);
+                        return;
+                    }
+                    referenced[slot] = false;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void store(int slot, long key, Holder<Biome> holder) {
+            keys[slot] = key;
+            values[slot] = holder;
+            referenced[slot] = false;
+        }
+    }
+}
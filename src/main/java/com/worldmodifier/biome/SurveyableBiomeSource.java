@@ -0,0 +1,30 @@
+package com.worldmodifier.biome;
+
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Climate;
+
+/**
+ * Implemented by biome sources (through their mixins) that can report both the biome they would
+ * pick without filtering and the filtered result for the same position.
+ *
+ * Contract: Sampling must not touch the quart cache or the metrics, so a survey neither evicts
+ * live worldgen results nor skews the stats. Safe to call from any thread.
+ */
+public interface SurveyableBiomeSource {
+
+    /**
+     * Samples one quart position.
+     *
+     * @param out receives the unfiltered and the filtered biome
+     */
+    void worldmodifier$sample(int x, int y, int z, Climate.Sampler sampler, Sample out);
+
+    /**
+     * Mutable result of {@link #worldmodifier$sample}, reused across calls by a single thread.
+     */
+    final class Sample {
+        public Holder<Biome> original;
+        public Holder<Biome> filtered;
+    }
+}
@@ -0,0 +1,171 @@
+package com.worldmodifier.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import com.worldmodifier.pregen.ChunkOrder;
+import com.worldmodifier.pregen.PregenManager;
+import com.worldmodifier.pregen.PregenTask;
+import com.worldmodifier.survey.BiomeSurvey;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Server commands under {@code /worldmodifier}.
+ *
+ * Contract:
+ * - stats: prints the runtime metrics to the command source
+ * - stats dump: writes the same report to worldmodifier-stats-[timestamp].txt in the game directory
+ * - pregen [radius] (region): pregenerates a square of chunks around the source's chunk
+ * - pregen pause|resume|cancel|status: controls the running pregeneration
+ * - survey [radius] (step): samples the filtered biome mix around the source without generating chunks
+ *
+ * All subcommands require permission level 2.
+ */
+public final class WorldModifierCommands {
+
+    // In chunks, so 480000 blocks: far less than the border (about 1.875M chunks) but already
+    // a square of 3.6 billion chunks, more than any server could generate in practice
+    private static final int MAX_PREGEN_RADIUS = 30000;
+    private static final int MAX_SURVEY_RADIUS = 100000;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private WorldModifierCommands() {
+    }
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(WorldModifier.MODID)
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats")
+                        .executes(WorldModifierCommands::printStats)
+                        .then(Commands.literal("dump")
+                                .executes(WorldModifierCommands::dumpStats)))
+                .then(Commands.literal("pregen")
+                        .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_PREGEN_RADIUS))
+                                .executes(context -> startPregen(context, ChunkOrder.SPIRAL))
+                                .then(Commands.literal("region")
+                                        .executes(context -> startPregen(context, ChunkOrder.REGION))))
+                        .then(Commands.literal("pause")
+                                .executes(context -> pausePregen(context, true)))
+                        .then(Commands.literal("resume")
+                                .executes(context -> pausePregen(context, false)))
+                        .then(Commands.literal("cancel")
+                                .executes(WorldModifierCommands::cancelPregen))
+                        .then(Commands.literal("status")
+                                .executes(WorldModifierCommands::pregenStatus)))
+                .then(Commands.literal("survey")
+                        .then(Commands.argument("radius", IntegerArgumentType.integer(16, MAX_SURVEY_RADIUS))
+                                .executes(context -> survey(context, 1))
+                                .then(Commands.argument("step", IntegerArgumentType.integer(1, 256))
+                                        .executes(context -> survey(context,
+                                                IntegerArgumentType.getInteger(context, "step")))))));
+    }
+
+    private static int printStats(CommandContext<CommandSourceStack> context) {
+        List<String> report = WorldModifierMetrics.report();
+        context.getSource().sendSuccess(() -> Component.literal("§6World Modifier stats"), false);
+        for (String line : report) {
+            context.getSource().sendSuccess(() -> Component.literal(line), false);
+        }
+        return report.size();
+    }
+
+    private static int dumpStats(CommandContext<CommandSourceStack> context) {
+        Path file = FMLPaths.GAMEDIR.get().resolve(
+                "worldmodifier-stats-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".txt");
+        try {
+            Files.write(file, WorldModifierMetrics.report());
+        } catch (IOException e) {
+            WorldModifier.LOGGER.error("[WorldModifierCommands.dumpStats]: Failed to write {}", file, e);
+            context.getSource().sendFailure(Component.literal("Failed to write " + file.getFileName() + ": " + e.getMessage()));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> Component.literal("Stats written to " + file.getFileName()), true);
+        return 1;
+    }
+
+    private static int startPregen(CommandContext<CommandSourceStack> context, ChunkOrder order) {
+        CommandSourceStack source = context.getSource();
+        int radius = IntegerArgumentType.getInteger(context, "radius");
+        ChunkPos center = new ChunkPos(BlockPos.containing(source.getPosition()));
+        PregenTask task = new PregenTask(source.getLevel().dimension(), center.x, center.z, radius, order);
+
+        String error = PregenManager.start(task);
+        if (error != null) {
+            source.sendFailure(Component.literal(error));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal("Pregenerating radius " + radius + " around " + center +
+                " in " + source.getLevel().dimension().location()), true);
+        return 1;
+    }
+
+    private static int pausePregen(CommandContext<CommandSourceStack> context, boolean paused) {
+        if (!PregenManager.setPaused(paused)) {
+            context.getSource().sendFailure(Component.literal("No pregeneration running"));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> Component.literal(paused ? "Pregeneration paused" : "Pregeneration resumed"), true);
+        return 1;
+    }
+
+    private static int cancelPregen(CommandContext<CommandSourceStack> context) {
+        if (!PregenManager.cancel()) {
+            context.getSource().sendFailure(Component.literal("No pregeneration running"));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> Component.literal("Pregeneration cancelled"), true);
+        return 1;
+    }
+
+    private static int pregenStatus(CommandContext<CommandSourceStack> context) {
+        for (String line : PregenManager.status()) {
+            context.getSource().sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int survey(CommandContext<CommandSourceStack> context, int step) {
+        CommandSourceStack source = context.getSource();
+        int radius = IntegerArgumentType.getInteger(context, "radius");
+        String refused = BiomeSurvey.check(source.getLevel(), radius, step);
+        if (refused != null) {
+            source.sendFailure(Component.literal(refused));
+            return 0;
+        }
+        CompletableFuture<List<String>> survey = BiomeSurvey.start(source.getLevel(),
+                BlockPos.containing(source.getPosition()), radius, step);
+        if (survey == null) {
+            source.sendFailure(Component.literal("A survey is already running"));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal("Surveying biomes, radius " + radius + "..."), false);
+        survey.whenCompleteAsync((lines, error) -> {
+            if (error != null) {
+                WorldModifier.LOGGER.error("[WorldModifierCommands.survey]: Survey failed", error);
+                source.sendFailure(Component.literal("Survey failed: " + error.getMessage()));
+                return;
+            }
+            for (String line : lines) {
+                WorldModifier.LOGGER.info("[WorldModifierCommands.survey]: {}", line);
+                source.sendSuccess(() -> Component.literal(line), false);
+            }
+        }, source.getServer());
+        return 1;
+    }
+}
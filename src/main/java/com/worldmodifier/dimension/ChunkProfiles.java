@@ -0,0 +1,91 @@
+package com.worldmodifier.dimension;
+
+import com.worldmodifier.WorldGenProfile;
+import net.minecraft.world.level.chunk.ChunkAccess;
+
+import javax.annotation.Nullable;
+
+/**
+ * Pins one profile per generating chunk, so a config reload never mixes settings within a chunk.
+ *
+ * Design: The first generation stage that needs a profile pins its dimension's current profile on
+ * the chunk (see {@link PinnedChunk}); every later stage of that chunk reads the pinned one.
+ * Stages that get the chunk as a parameter (noise chunk creation, the bedrock floor) read the pin
+ * directly. Biome sources are only handed coordinates, so the stages that query them (structure
+ * starts and biome filling) also publish the pin in a thread-local for their duration, and
+ * {@link #resolve(DimensionBinding)} prefers it over the binding's current profile.
+ *
+ * Contract: Only settings applied while a chunk generates are pinned. Heights and the sea level
+ * the rest of the game sees are read from the current profile.
+ *
+ * Thread safety: A chunk's stages run one after another, each on a single worldgen thread, so
+ * the pin needs no locking; the thread-local keeps concurrent chunks apart.
+ */
+public final class ChunkProfiles {
+
+    // Set for the duration of a pinned stage; holds the pin of the chunk the thread is generating
+    private static final ThreadLocal<Pin> CURRENT = new ThreadLocal<>();
+
+    private ChunkProfiles() {
+    }
+
+    /**
+     * @param chunk the chunk being generated
+     * @param binding the binding of the chunk's dimension
+     * @return the profile pinned on the chunk, pinning the binding's current one on first use
+     */
+    public static WorldGenProfile pin(ChunkAccess chunk, DimensionBinding binding) {
+        return pinOf(chunk, binding).profile();
+    }
+
+    /**
+     * Publishes the chunk's pin to biome lookups on this thread until {@link #end()}.
+     */
+    public static void begin(ChunkAccess chunk, DimensionBinding binding) {
+        CURRENT.set(pinOf(chunk, binding));
+    }
+
+    /**
+     * Ends the stage started by {@link #begin}. If the stage threw, the next begin on the thread
+     * replaces the stale pin.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @param binding the binding of the object asking
+     * @return the profile pinned by the stage running on this thread, or the binding's current one
+     */
+    public static WorldGenProfile resolve(DimensionBinding binding) {
+        Pin pin = CURRENT.get();
+        return pin != null && pin.binding() == binding ? pin.profile() : binding.profile();
+    }
+
+    private static Pin pinOf(ChunkAccess chunk, DimensionBinding binding) {
+        PinnedChunk pinned = (PinnedChunk) chunk;
+        Pin pin = pinned.worldmodifier$pin();
+        if (pin == null || pin.binding() != binding) {
+            pin = new Pin(binding, binding.profile());
+            pinned.worldmodifier$setPin(pin);
+        }
+        return pin;
+    }
+
+    /**
+     * A chunk's dimension binding and the profile it generates with.
+     */
+    public record Pin(DimensionBinding binding, WorldGenProfile profile) {
+    }
+
+    /**
+     * Implemented by ChunkAccess through a mixin to carry the chunk's pin.
+     */
+    public interface PinnedChunk {
+
+        @Nullable
+        Pin worldmodifier$pin();
+
+        void worldmodifier$setPin(Pin pin);
+    }
+}
@@ -0,0 +1,88 @@
+package com.worldmodifier.dimension;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.biome.BiomeTileStore;
+import com.worldmodifier.biome.FallbackSet;
+import net.minecraft.resources.ResourceLocation;
+
+import javax.annotation.Nullable;
+
+/**
+ * The current profile of one dimension, shared by every worldgen object bound to it.
+ *
+ * Design: There is a single binding per dimension id for the life of the game. A config reload
+ * swaps the profile inside it rather than rebinding objects, so mixins keep one field read to
+ * find their profile.
+ *
+ * Thread safety: The profile is published through a volatile field; see {@link WorldGenProfile}.
+ */
+public final class DimensionBinding {
+
+    private final ResourceLocation dimension;
+    private volatile WorldGenProfile profile;
+    private volatile long seed;
+    @Nullable
+    private volatile FallbackSet fallbacks;
+    @Nullable
+    private volatile BiomeTileStore tileStore;
+
+    DimensionBinding(ResourceLocation dimension, WorldGenProfile profile) {
+        this.dimension = dimension;
+        this.profile = profile;
+    }
+
+    /**
+     * @return id of the dimension this binding belongs to
+     */
+    public ResourceLocation dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the dimension's current profile; never null
+     */
+    public WorldGenProfile profile() {
+        return profile;
+    }
+
+    /**
+     * @return seed of the world the dimension was last bound in; 0 on clients
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return the current profile's fallbacks resolved against the server's biome registry, or
+     *         null before the server started or on clients
+     */
+    @Nullable
+    public FallbackSet fallbacks() {
+        return fallbacks;
+    }
+
+    /**
+     * @return the dimension's on-disk biome tiles, or null if the store is disabled or the server
+     *         is not running
+     */
+    @Nullable
+    public BiomeTileStore tileStore() {
+        return tileStore;
+    }
+
+    void attachTileStore(@Nullable BiomeTileStore tileStore) {
+        this.tileStore = tileStore;
+    }
+
+    void resolveFallbacks(FallbackSet fallbacks) {
+        this.fallbacks = fallbacks;
+    }
+
+    void bindSeed(long seed) {
+        this.seed = seed;
+    }
+
+    void update(WorldGenProfile profile) {
+        this.profile = profile;
+    }
+}
@@ -0,0 +1,22 @@
+package com.worldmodifier.dimension;
+
+import javax.annotation.Nullable;
+
+/**
+ * Implemented (through mixins) by the worldgen objects that belong to one dimension: its
+ * dimension type, chunk generator, noise settings and biome source.
+ * Lets {@link DimensionProfiles} attach a dimension's profile to them when the server starts.
+ */
+public interface DimensionBound {
+
+    /**
+     * @return the binding of the dimension this object belongs to, or null if it has no profile
+     */
+    @Nullable
+    DimensionBinding worldmodifier$binding();
+
+    /**
+     * Attaches the object to a dimension's profile.
+     */
+    void worldmodifier$bind(DimensionBinding binding);
+}
@@ -0,0 +1,240 @@
+package com.worldmodifier.dimension;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.biome.BiomeTileStore;
+import com.worldmodifier.biome.FallbackSet;
+import com.worldmodifier.gen.SharedEmptySections;
+import com.worldmodifier.metrics.Diagnostics;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.dimension.LevelStem;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-dimension profiles and their attachment to worldgen objects.
+ *
+ * Design: {@link com.worldmodifier.WorldModifierConfig#rebuildCache()} compiles one profile per
+ * configured dimension and publishes them here. When the server is about to start, before any
+ * level exists, every configured level stem's dimension type, generator, noise settings and
+ * biome source is bound to its dimension's {@link DimensionBinding}. Mixins read the binding
+ * from a field on the object itself; objects of unconfigured dimensions have none and go
+ * straight to vanilla.
+ *
+ * Fallback biomes are resolved against the server's biome registry at the same time and again
+ * after every reload, so biome sources never search for them by id. With biomeTileStore on, each
+ * bound dimension also gets a {@link BiomeTileStore} in the world folder for the server's lifetime.
+ *
+ * Contract: Dimensions added to the config take effect from the next server start; reloads
+ * update the profiles of dimensions that are already bound. A dimension removed by a reload
+ * falls back to vanilla settings.
+ *
+ * Thread safety: Publishing and binding are synchronized; profiles are read through the
+ * bindings' volatile fields.
+ */
+public final class DimensionProfiles {
+
+    // Folder under the world's data folder holding one tile folder per dimension
+    private static final String TILE_FOLDER = "worldmodifier-biomes";
+
+    // Sections per chunk above which a dimension's height is reported; the overworld has 24
+    private static final int TALL_SECTIONS = 64;
+
+    // One binding per dimension id ever configured, so objects bound before a reload follow it
+    private static final Map<ResourceLocation, DimensionBinding> BINDINGS = new HashMap<>();
+
+    private static volatile Map<ResourceLocation, WorldGenProfile> profiles = Map.of();
+
+    // Biome registry of the running server, for resolving fallbacks again after a reload
+    @Nullable
+    private static Registry<Biome> biomes;
+
+    private DimensionProfiles() {
+    }
+
+    /**
+     * Replaces the compiled profiles and updates every existing binding.
+     *
+     * @param compiled profile per configured dimension id
+     */
+    public static synchronized void publish(Map<ResourceLocation, WorldGenProfile> compiled) {
+        profiles = Map.copyOf(compiled);
+        for (DimensionBinding binding : BINDINGS.values()) {
+            binding.update(compiled.getOrDefault(binding.dimension(), WorldGenProfile.VANILLA));
+            if (biomes != null) {
+                binding.resolveFallbacks(FallbackSet.resolve(binding.profile(), biomes, binding.dimension()));
+            }
+        }
+    }
+
+    /**
+     * @param dimension the dimension id
+     * @return the dimension's current profile, or null if it is not configured
+     */
+    @Nullable
+    public static WorldGenProfile profile(ResourceLocation dimension) {
+        return profiles.get(dimension);
+    }
+
+    /**
+     * @param dimension the dimension id
+     * @return the dimension's binding, or null if it is not configured
+     */
+    @Nullable
+    public static synchronized DimensionBinding binding(ResourceLocation dimension) {
+        WorldGenProfile profile = profiles.get(dimension);
+        if (profile == null) {
+            return null;
+        }
+        return BINDINGS.computeIfAbsent(dimension, key -> new DimensionBinding(key, profile));
+    }
+
+    /**
+     * Creates a binding outside the configured dimensions, for tools that build worldgen objects
+     * of their own (the chunk generation benchmark). Callers bind objects to it through
+     * {@link DimensionBound}; it is never updated by reloads.
+     *
+     * @param id name of the binding, used in diagnostics
+     * @param profile the profile the objects generate with
+     * @param seed seed of the fallback spread
+     * @return the binding
+     */
+    public static synchronized DimensionBinding detached(ResourceLocation id, WorldGenProfile profile, long seed) {
+        DimensionBinding binding = new DimensionBinding(id, profile);
+        binding.bindSeed(seed);
+        if (biomes != null) {
+            binding.resolveFallbacks(FallbackSet.resolve(profile, biomes, id));
+        }
+        return binding;
+    }
+
+    /**
+     * Binds the worldgen objects of every configured level stem.
+     * Must run before the server creates its levels.
+     */
+    public static synchronized void bindServer(MinecraftServer server) {
+        Registry<LevelStem> stems = server.registryAccess().registryOrThrow(Registries.LEVEL_STEM);
+        Path tiles = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(TILE_FOLDER);
+        long seed = server.getWorldData().worldGenOptions().seed();
+        biomes = server.registryAccess().registryOrThrow(Registries.BIOME);
+
+        int bound = 0;
+        for (Map.Entry<ResourceKey<LevelStem>, LevelStem> entry : stems.entrySet()) {
+            DimensionBinding binding = binding(entry.getKey().location());
+            if (binding == null) {
+                continue;
+            }
+            binding.bindSeed(seed);
+            binding.resolveFallbacks(FallbackSet.resolve(binding.profile(), biomes, binding.dimension()));
+            LevelStem stem = entry.getValue();
+            DimensionType type = stem.type().value();
+            bind(type, binding);
+            warnIfTall(binding.dimension(), type);
+            if (WorldModifierConfig.isBiomeTileStoreEnabled()) {
+                ResourceLocation id = binding.dimension();
+                binding.attachTileStore(BiomeTileStore.open(tiles.resolve(id.getNamespace()).resolve(id.getPath()),
+                        biomes, type.minY(), type.height()));
+            }
+
+            ChunkGenerator generator = stem.generator();
+            bind(generator, binding);
+            bind(generator.getBiomeSource(), binding);
+            if (generator instanceof NoiseBasedChunkGenerator noise) {
+                NoiseGeneratorSettings settings = noise.generatorSettings().value();
+                bind(settings, binding);
+                bind(settings.noiseSettings(), binding);
+            }
+            bound++;
+        }
+
+        for (ResourceLocation dimension : profiles.keySet()) {
+            if (!stems.containsKey(ResourceKey.create(Registries.LEVEL_STEM, dimension))) {
+                WorldModifier.LOGGER.warn("[DimensionProfiles.bindServer]: Configured dimension {} does not exist", dimension);
+            }
+        }
+
+        // Heights belong to the dimension type, so a type shared with a configured dimension carries them along
+        for (Map.Entry<ResourceKey<LevelStem>, LevelStem> entry : stems.entrySet()) {
+            ResourceLocation dimension = entry.getKey().location();
+            // DimensionType is a record, so only the Object view can be tested for the mixin interface
+            Object type = entry.getValue().type().value();
+            if (!profiles.containsKey(dimension)
+                    && type instanceof DimensionBound bound
+                    && bound.worldmodifier$binding() != null) {
+                WorldModifier.LOGGER.warn("[DimensionProfiles.bindServer]: Dimension {} shares its dimension type with {} and gets its height settings",
+                        dimension, bound.worldmodifier$binding().dimension());
+            }
+        }
+
+        WorldModifier.LOGGER.info("[DimensionProfiles.bindServer]: Bound {} of {} dimensions", bound, stems.size());
+    }
+
+    /**
+     * Every loaded chunk, on the server and on clients, holds a section per 16 blocks of height,
+     * empty or not. Empty sections share one block container (see {@link SharedEmptySections}),
+     * but biome filling gives each its own biome container, so tall dimensions still cost memory
+     * in proportion to their height.
+     */
+    private static void warnIfTall(ResourceLocation dimension, DimensionType type) {
+        int sections = type.height() >> 4;
+        if (sections > TALL_SECTIONS) {
+            Diagnostics.warnOnce("tall-dimension:" + dimension,
+                    "[DimensionProfiles.bindServer]: {} is {} blocks tall, {} sections per loaded chunk ({}x the overworld); empty sections share their blocks but keep their own biomes, so expect memory per chunk to grow",
+                    dimension, type.height(), sections, String.format("%.1f", sections / 24.0));
+        }
+    }
+
+    /**
+     * Drops the stopped server's biome registry and flushes its biome tiles.
+     */
+    public static synchronized void unbindServer() {
+        biomes = null;
+        for (DimensionBinding binding : BINDINGS.values()) {
+            BiomeTileStore store = binding.tileStore();
+            if (store != null) {
+                binding.attachTileStore(null);
+                store.close();
+            }
+        }
+    }
+
+    /**
+     * Binds a level's dimension type. Covers client levels, whose dimension types are
+     * received from the server rather than taken from its level stems.
+     */
+    public static synchronized void bindLevel(Level level) {
+        DimensionBinding binding = binding(level.dimension().location());
+        if (binding != null) {
+            bind(level.dimensionType(), binding);
+        }
+    }
+
+    private static void bind(Object target, DimensionBinding binding) {
+        // Generators and biome sources from other mods have no mixin; they stay vanilla
+        if (!(target instanceof DimensionBound bound)) {
+            return;
+        }
+        DimensionBinding existing = bound.worldmodifier$binding();
+        if (existing != null && existing != binding && profiles.containsKey(existing.dimension())) {
+            WorldModifier.LOGGER.warn("[DimensionProfiles.bind]: {} is shared by {} and {}, keeping the profile of {}",
+                    target.getClass().getSimpleName(), existing.dimension(), binding.dimension(), existing.dimension());
+            return;
+        }
+        bound.worldmodifier$bind(binding);
+    }
+}
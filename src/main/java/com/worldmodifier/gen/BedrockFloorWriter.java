@@ -0,0 +1,109 @@
+package com.worldmodifier.gen;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifierConfig.BedrockPattern;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+
+import javax.annotation.Nullable;
+import java.util.EnumSet;
+
+/**
+ * Writes the bedrock floor of a chunk straight into its bottom section.
+ *
+ * Design: ChunkAccess.setBlockState takes the section lock, checks lighting and updates every
+ * heightmap for each block. The floor never leaves the bottom section (min Y is a multiple of 16
+ * and the thickness is at most 16), so the writer holds that section's lock once and uses the
+ * unlocked section write for every block. Heightmaps are then updated once per column at the
+ * column's top bedrock block, and the chunk is marked unsaved once.
+ *
+ * Contract: Only called on proto chunks during generation, before lighting is initialized, so no
+ * light updates are needed.
+ */
+public final class BedrockFloorWriter {
+
+    private static final BlockState BEDROCK = Blocks.BEDROCK.defaultBlockState();
+
+    private BedrockFloorWriter() {
+    }
+
+    /**
+     * @param chunk the chunk being generated
+     * @param profile profile holding the floor level, pattern and thickness
+     * @param random positional random for GRADIENT floors; ignored for FLAT
+     * @return number of bedrock blocks written, 0 if the floor is outside the chunk
+     */
+    public static int write(ChunkAccess chunk, WorldGenProfile profile, @Nullable PositionalRandomFactory random) {
+        int floorY = profile.minY;
+        int sectionIndex = chunk.getSectionIndex(floorY);
+        if (sectionIndex < 0 || sectionIndex >= chunk.getSectionsCount()) {
+            return 0;
+        }
+
+        boolean gradient = profile.bedrockPattern == BedrockPattern.GRADIENT && random != null;
+        int thickness = profile.bedrockThickness;
+        int minX = chunk.getPos().getMinBlockX();
+        int minZ = chunk.getPos().getMinBlockZ();
+
+        // Top bedrock layer of each column, or -1 if the column got none
+        int[] topLayer = new int[256];
+        int written = 0;
+
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        section.acquire();
+        try {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int top = -1;
+                    for (int layer = 0; layer < thickness; layer++) {
+                        if (gradient && layer > 0) {
+                            // Same falloff as vanilla's bedrock_floor vertical gradient
+                            float chance = (float) Mth.map(layer, 0, thickness, 1.0, 0.0);
+                            if (random.at(minX + x, floorY + layer, minZ + z).nextFloat() >= chance) {
+                                continue;
+                            }
+                        }
+                        section.setBlockState(x, layer, z, BEDROCK, false);
+                        top = layer;
+                        written++;
+                    }
+                    topLayer[z << 4 | x] = top;
+                }
+            }
+        } finally {
+            section.release();
+        }
+
+        updateHeightmaps(chunk, floorY, topLayer);
+        chunk.setUnsaved(true);
+        return written;
+    }
+
+    /**
+     * Brings the chunk's heightmaps up to date with one update per column.
+     * Heightmaps that were never primed are primed from the finished section instead.
+     */
+    private static void updateHeightmaps(ChunkAccess chunk, int floorY, int[] topLayer) {
+        EnumSet<Heightmap.Types> unprimed = EnumSet.noneOf(Heightmap.Types.class);
+        for (Heightmap.Types type : chunk.getStatus().heightmapsAfter()) {
+            if (!chunk.hasPrimedHeightmap(type)) {
+                unprimed.add(type);
+                continue;
+            }
+            Heightmap heightmap = chunk.getOrCreateHeightmapUnprimed(type);
+            for (int i = 0; i < 256; i++) {
+                if (topLayer[i] >= 0) {
+                    heightmap.update(i & 15, floorY + topLayer[i], i >> 4, BEDROCK);
+                }
+            }
+        }
+        if (!unprimed.isEmpty()) {
+            Heightmap.primeHeightmaps(chunk, unprimed);
+        }
+    }
+}
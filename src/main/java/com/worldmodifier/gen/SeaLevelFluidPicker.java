@@ -0,0 +1,60 @@
+package com.worldmodifier.gen;
+
+import com.worldmodifier.WorldGenProfile;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.levelgen.Aquifer;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+
+import javax.annotation.Nullable;
+
+/**
+ * Global fluid picker for the configured sea level.
+ *
+ * Design: Built once per noise chunk from the current profile, so the sea level is fixed when the
+ * aquifer is created instead of being checked for every block. Without flooding it matches
+ * vanilla's picker (lava below Y -54, the default fluid up to the sea level). With flooding there
+ * is no lava layer, and the noise chunk swaps its aquifer for Aquifer.createDisabled, which fills
+ * every open block below the sea level without sampling aquifer noise.
+ */
+public final class SeaLevelFluidPicker implements Aquifer.FluidPicker {
+
+    // Vanilla's lava level for open caves, see NoiseBasedChunkGenerator.createFluidPicker
+    private static final int LAVA_LEVEL = -54;
+
+    private final Aquifer.FluidStatus sea;
+    @Nullable
+    private final Aquifer.FluidStatus lava;
+    private final int lavaBelow;
+
+    private SeaLevelFluidPicker(Aquifer.FluidStatus sea, @Nullable Aquifer.FluidStatus lava, int lavaBelow) {
+        this.sea = sea;
+        this.lava = lava;
+        this.lavaBelow = lavaBelow;
+    }
+
+    /**
+     * @param profile the profile holding the sea level and flood setting
+     * @param settings the generator's settings, providing the default fluid
+     * @return a picker for the profile's sea level
+     */
+    public static SeaLevelFluidPicker create(WorldGenProfile profile, NoiseGeneratorSettings settings) {
+        Aquifer.FluidStatus sea = new Aquifer.FluidStatus(profile.seaLevel, settings.defaultFluid());
+        if (profile.floodCaves) {
+            return new SeaLevelFluidPicker(sea, null, Integer.MIN_VALUE);
+        }
+        Aquifer.FluidStatus lava = new Aquifer.FluidStatus(LAVA_LEVEL, Blocks.LAVA.defaultBlockState());
+        return new SeaLevelFluidPicker(sea, lava, Math.min(LAVA_LEVEL, profile.seaLevel));
+    }
+
+    /**
+     * @return true if aquifers built with this picker should be replaced by flooding
+     */
+    public boolean floods() {
+        return lava == null;
+    }
+
+    @Override
+    public Aquifer.FluidStatus computeFluid(int x, int y, int z) {
+        return y < lavaBelow ? lava : sea;
+    }
+}
@@ -0,0 +1,56 @@
+package com.worldmodifier.gen;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * One block container shared by the all-air sections of dimensions taller than the overworld.
+ *
+ * Design: Every section of a chunk gets its own block container, air or not, so a 2000 block
+ * dimension keeps well over a hundred empty containers per loaded chunk. When a chunk of such a
+ * dimension is created, its sections holding nothing but air switch to this container. A section
+ * copies it back into a container of its own right before anything writes to it (block updates,
+ * noise filling, features, a chunk packet), and a client section that reads only air from a
+ * packet shares it again. Biome containers are not shared: biome filling gives every section
+ * its own anyway.
+ *
+ * Contract: Nothing ever writes to the shared container; a write that bypasses the section
+ * fails loudly instead of changing every empty section at once.
+ *
+ * Thread safety: Never written, so concurrent saves and packet writes may read it at once; its
+ * threading detector is skipped, as it would report them as a race.
+ */
+public final class SharedEmptySections {
+
+    // Sections per chunk above which empty sections are shared; the overworld has 24
+    public static final int MIN_SECTIONS = 24;
+
+    private static final BlockState AIR_STATE = Blocks.AIR.defaultBlockState();
+
+    public static final PalettedContainer<BlockState> AIR = new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY,
+            AIR_STATE, PalettedContainer.Strategy.SECTION_STATES);
+
+    private SharedEmptySections() {
+    }
+
+    /**
+     * Implemented by LevelChunkSection through a mixin.
+     */
+    public interface Shareable {
+
+        /**
+         * Switches the section to the shared container if it holds nothing but air, and lets
+         * later packet reads share it again.
+         */
+        void worldmodifier$share();
+    }
+
+    /**
+     * @return true if the container holds nothing but plain air (not cave or void air)
+     */
+    public static boolean isAir(PalettedContainer<BlockState> states) {
+        return !states.maybeHas(state -> state != AIR_STATE);
+    }
+}
@@ -0,0 +1,105 @@
+package com.worldmodifier.gen;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * Fills the parts of a chunk's noise range that the terrain band cut off.
+ *
+ * Design: Vanilla only evaluates noise within the noise settings' own range (the overworld's
+ * -64 to 320), whatever the world height, and leaves the rest of a taller world empty. The band
+ * narrows that range further, and only the part it cut off is filled here, so nothing outside
+ * the datapack's range changes. Deep below the surface density functions are solid ground, so
+ * that space is filled with the dimension's default block. Above the terrain they are open air,
+ * which a flooded sea level turns into water up to the sea level. Sections entirely inside a filled
+ * range are replaced by a section holding a single-value palette: one allocation instead of
+ * 4096 block writes, and the palette resizes as usual once carvers, features or the bedrock
+ * floor touch it. Only the sections at the ends of the range are written block by block.
+ *
+ * Lighting needs nothing extra for these sections: light source scans reject a single-value
+ * section from its palette alone, sky light above the highest non-empty section is implicit,
+ * and propagation fades out within 15 blocks of water, so deep uniform stacks are never visited.
+ *
+ * Contract: Only called on proto chunks right after their noise was filled, before carvers,
+ * lighting or anything else has seen the sections outside the band.
+ */
+public final class TerrainBandFiller {
+
+    private static final Heightmap.Types[] HEIGHTMAPS = {Heightmap.Types.OCEAN_FLOOR_WG, Heightmap.Types.WORLD_SURFACE_WG};
+
+    private TerrainBandFiller() {
+    }
+
+    /**
+     * Implemented by NoiseSettings through a mixin. Its minY and height accessors return the
+     * profile's world range; these return the datapack's own, which vanilla clamps noise to.
+     */
+    public interface NoiseRange {
+
+        int worldmodifier$noiseMinY();
+
+        int worldmodifier$noiseMaxY();
+    }
+
+    /**
+     * @param chunk the chunk whose noise was just filled
+     * @param fromY lowest block y to fill
+     * @param toY block y above the highest one to fill
+     * @param state block to fill with
+     * @return number of sections replaced in bulk
+     */
+    public static int fill(ChunkAccess chunk, int fromY, int toY, BlockState state) {
+        int bottom = Math.max(fromY, chunk.getMinBuildHeight());
+        int top = Math.min(toY, chunk.getMaxBuildHeight());
+        if (top <= bottom) {
+            return 0;
+        }
+
+        LevelChunkSection[] sections = chunk.getSections();
+        int replaced = 0;
+        int y = bottom;
+        while (y < top) {
+            int index = chunk.getSectionIndex(y);
+            int sectionBottom = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(index));
+            LevelChunkSection section = sections[index];
+            if (y == sectionBottom && top >= sectionBottom + 16 && section.hasOnlyAir()) {
+                sections[index] = new LevelChunkSection(
+                        new PalettedContainer<>(Block.BLOCK_STATE_REGISTRY, state, PalettedContainer.Strategy.SECTION_STATES),
+                        section.getBiomes());
+                replaced++;
+                y += 16;
+                continue;
+            }
+            int end = Math.min(top, sectionBottom + 16);
+            section.acquire();
+            try {
+                for (; y < end; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            section.setBlockState(x, y & 15, z, state, false);
+                        }
+                    }
+                }
+            } finally {
+                section.release();
+            }
+        }
+
+        // Only raises columns whose top block is lower; anywhere else the update is a no-op
+        for (Heightmap.Types type : HEIGHTMAPS) {
+            Heightmap heightmap = chunk.getOrCreateHeightmapUnprimed(type);
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    heightmap.update(x, top - 1, z, state);
+                }
+            }
+        }
+        chunk.setUnsaved(true);
+        return replaced;
+    }
+}
@@ -0,0 +1,37 @@
+package com.worldmodifier.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a noise chunk given the custom sea level fluid picker.
+ *
+ * Design: Emitted once per generated chunk as an instant event, since the picker is only built
+ * there. Disabled by default to keep recordings of large pregens small. The noise chunk has no
+ * level reference, so the event carries no dimension.
+ */
+@Name("worldmodifier.AquiferOverride")
+@Label("Aquifer Override")
+@Category({"World Modifier", "Worldgen"})
+@Description("Custom sea level applied to a chunk's aquifer")
+@Enabled(false)
+@StackTrace(false)
+public final class AquiferOverrideEvent extends jdk.jfr.Event {
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+
+    @Label("Sea Level")
+    public int seaLevel;
+
+    @Label("Flooded")
+    @Description("True if aquifer noise was replaced by flooding to the sea level")
+    public boolean flooded;
+}
@@ -0,0 +1,31 @@
+package com.worldmodifier.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the bedrock floor pass of one chunk.
+ * Emitted once per chunk, so it is enabled by default.
+ */
+@Name("worldmodifier.BedrockFloor")
+@Label("Bedrock Floor")
+@Category({"World Modifier", "Worldgen"})
+@Description("Bedrock floor placed at the configured bedrock level")
+@StackTrace(false)
+public final class BedrockFloorEvent extends jdk.jfr.Event {
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Floor Y")
+    public int floorY;
+}
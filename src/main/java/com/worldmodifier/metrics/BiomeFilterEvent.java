@@ -0,0 +1,89 @@
+package com.worldmodifier.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+
+import javax.annotation.Nullable;
+
+/**
+ * JFR event for a single biome filter decision in getNoiseBiome.
+ *
+ * Design: Emitted once per quart lookup, so it is disabled by default and has to be switched on
+ * in the recording settings (worldmodifier.BiomeFilter#enabled=true). It is begun by the HEAD
+ * hook and ended by whichever hook produces the biome, so its duration covers the whole lookup:
+ * cache and tile checks, the source's own search and the replacement. The event travels between
+ * the two hooks in a thread local, which is only touched while a recording wants the event.
+ */
+@Name("worldmodifier.BiomeFilter")
+@Label("Biome Filter")
+@Category({"World Modifier", "Worldgen"})
+@Description("Biome filter decision for one quart position")
+@Enabled(false)
+@StackTrace(false)
+public final class BiomeFilterEvent extends jdk.jfr.Event {
+
+    // Begun by start() on this thread and not yet finished
+    private static final ThreadLocal<BiomeFilterEvent> STARTED = new ThreadLocal<>();
+
+    @Label("Chunk X")
+    public int chunkX;
+
+    @Label("Chunk Z")
+    public int chunkZ;
+
+    @Label("Quart Y")
+    public int quartY;
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Original Biome")
+    @Description("Biome picked by the source; empty when answered from the cache or tiles, or when the climate search was redirected")
+    public String original;
+
+    @Label("Replacement Biome")
+    public String replacement;
+
+    /**
+     * Begins timing a lookup if a recording wants the event. Pair with {@link #finish()}.
+     */
+    public static void start() {
+        BiomeFilterEvent event = new BiomeFilterEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            STARTED.set(event);
+        }
+    }
+
+    /**
+     * Ends the event begun by {@link #start()} on this thread.
+     *
+     * @return the event to fill in and commit, or null if no recording wants it
+     */
+    @Nullable
+    public static BiomeFilterEvent finish() {
+        if (!new BiomeFilterEvent().isEnabled()) {
+            return null;
+        }
+        BiomeFilterEvent event = STARTED.get();
+        if (event == null) {
+            return null;
+        }
+        STARTED.remove();
+        event.end();
+        return event.shouldCommit() ? event : null;
+    }
+
+    /**
+     * @return the biome's id, or a placeholder for unregistered holders
+     */
+    public static String name(Holder<Biome> biome) {
+        return biome.unwrapKey().map(key -> key.location().toString()).orElse("[unregistered]");
+    }
+}
@@ -0,0 +1,86 @@
+package com.worldmodifier.metrics;
+
+import com.worldmodifier.WorldModifier;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Configuration problems found while compiling profiles and filter tables, each logged once.
+ *
+ * Design: A problem is identified by a stable key (e.g. "missing-fallback:minecraft:the_end:
+ * minecraft:plains"). The first report logs a warning; later reports of the same key, from table
+ * rebuilds after reloads or from other biome sources, only bump its counter. The distinct
+ * problems are listed by {@code /worldmodifier stats} and summarized when the server starts.
+ *
+ * Contract: Only called while compiling, never from per-block or per-lookup paths.
+ */
+public final class Diagnostics {
+
+    private static final Map<String, Problem> PROBLEMS = new ConcurrentHashMap<>();
+
+    private Diagnostics() {
+    }
+
+    /**
+     * Logs the message as a warning if the key has not been reported before.
+     *
+     * @param key stable identity of the problem
+     * @param format SLF4J message format
+     * @param args message arguments
+     */
+    public static void warnOnce(String key, String format, Object... args) {
+        Problem problem = PROBLEMS.get(key);
+        if (problem == null) {
+            Problem created = new Problem(MessageFormatter.arrayFormat(format, args).getMessage());
+            problem = PROBLEMS.putIfAbsent(key, created);
+            if (problem == null) {
+                problem = created;
+                WorldModifier.LOGGER.warn(created.message);
+            }
+        }
+        problem.count.increment();
+    }
+
+    /**
+     * @return number of distinct problems reported so far
+     */
+    public static int count() {
+        return PROBLEMS.size();
+    }
+
+    /**
+     * Logs a one-line summary if any problem has been reported.
+     */
+    public static void logSummary() {
+        if (!PROBLEMS.isEmpty()) {
+            WorldModifier.LOGGER.warn("[Diagnostics.logSummary]: {} configuration problem(s) found, see the warnings above or /worldmodifier stats",
+                    PROBLEMS.size());
+        }
+    }
+
+    /**
+     * @return one line per distinct problem, with how often it was hit
+     */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Problem problem : PROBLEMS.values()) {
+            lines.add(problem.message + " (x" + problem.count.sum() + ")");
+        }
+        lines.sort(null);
+        return lines;
+    }
+
+    private static final class Problem {
+        private final String message;
+        private final LongAdder count = new LongAdder();
+
+        Problem(String message) {
+            this.message = message;
+        }
+    }
+}
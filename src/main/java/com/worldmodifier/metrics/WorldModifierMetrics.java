@@ -0,0 +1,115 @@
+package com.worldmodifier.metrics;
+
+import com.worldmodifier.biome.QuartBiomeCache;
+import jdk.jfr.FlightRecorder;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on runtime counters for biome filtering and world modifications.
+ *
+ * Design: Every counter is a striped LongAdder, so increments from parallel worldgen threads
+ * don't contend. Per-biome replacement counters are resolved once when a filter table is
+ * compiled, leaving a single increment on the hot path. Counters are process-wide and are
+ * only summed when a report is requested.
+ *
+ * Per-call timings are not kept here; they are JFR events ({@link BiomeFilterEvent},
+ * {@link BedrockFloorEvent}, {@link AquiferOverrideEvent}) that cost nothing unless a
+ * recording has them enabled.
+ */
+public final class WorldModifierMetrics {
+
+    /** getNoiseBiome calls seen by the biome filter. */
+    public static final LongAdder NOISE_BIOME_CALLS = new LongAdder();
+    /** Lookups answered by a search of the allowed-only climate parameters. */
+    public static final LongAdder CLIMATE_SEARCHES = new LongAdder();
+    /** Lookups answered from a dimension's on-disk biome tiles. */
+    public static final LongAdder TILE_STORE_HITS = new LongAdder();
+    /** Non-allowed biomes left unchanged because the fallback biome could not be resolved. */
+    public static final LongAdder FALLBACK_MISSES = new LongAdder();
+    /** Noise chunks whose aquifer was replaced by flooding to the custom sea level. */
+    public static final LongAdder FLOODED_AQUIFERS = new LongAdder();
+    /** Chunks that got a bedrock floor at the configured bedrock level. */
+    public static final LongAdder BEDROCK_FLOORS = new LongAdder();
+    /** Sections outside the terrain band filled in bulk instead of from noise. */
+    public static final LongAdder BANDED_SECTIONS = new LongAdder();
+
+    /** Biome searches answered at once because the filter cannot produce a matching biome. */
+    public static final LongAdder BIOME_SEARCHES_SKIPPED = new LongAdder();
+    /** Biome searches that skipped regions the biome region index knows lack the biome. */
+    public static final LongAdder BIOME_SEARCHES_INDEXED = new LongAdder();
+
+    /** Structure start attempts skipped because the structure has no allowed biome. */
+    public static final LongAdder STRUCTURE_STARTS_PRUNED = new LongAdder();
+
+    private static final Map<ResourceLocation, LongAdder> REPLACEMENTS = new ConcurrentHashMap<>();
+
+    private WorldModifierMetrics() {
+    }
+
+    /**
+     * Registers the JFR event types up front so they show up in recording settings
+     * before the first chunk is generated.
+     */
+    public static void registerEvents() {
+        FlightRecorder.register(BiomeFilterEvent.class);
+        FlightRecorder.register(BedrockFloorEvent.class);
+        FlightRecorder.register(AquiferOverrideEvent.class);
+    }
+
+    /**
+     * @param original the biome being replaced
+     * @return the counter of replacements made for that biome
+     */
+    public static LongAdder replacementCounter(ResourceLocation original) {
+        return REPLACEMENTS.computeIfAbsent(original, key -> new LongAdder());
+    }
+
+    /**
+     * @return human-readable report lines, replacements sorted by count
+     */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        long hits = QuartBiomeCache.totalHits();
+        long lookups = hits + QuartBiomeCache.totalMisses();
+
+        lines.add("getNoiseBiome calls: " + NOISE_BIOME_CALLS.sum());
+        lines.add("Climate searches: " + CLIMATE_SEARCHES.sum());
+        lines.add("Biome cache hits: " + hits + " / " + lookups);
+        lines.add("Biome tile store hits: " + TILE_STORE_HITS.sum());
+        lines.add("Fallback misses: " + FALLBACK_MISSES.sum());
+        lines.add("Flooded aquifers: " + FLOODED_AQUIFERS.sum());
+        lines.add("Bedrock floors placed: " + BEDROCK_FLOORS.sum());
+        lines.add("Sections filled outside the terrain band: " + BANDED_SECTIONS.sum());
+        lines.add("Structure starts pruned: " + STRUCTURE_STARTS_PRUNED.sum());
+        lines.add("Biome searches skipped / indexed: " + BIOME_SEARCHES_SKIPPED.sum() + " / " + BIOME_SEARCHES_INDEXED.sum());
+
+        List<Map.Entry<ResourceLocation, Long>> replacements = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<ResourceLocation, LongAdder> entry : REPLACEMENTS.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                replacements.add(Map.entry(entry.getKey(), count));
+                total += count;
+            }
+        }
+        replacements.sort(Map.Entry.<ResourceLocation, Long>comparingByValue(Comparator.reverseOrder()));
+
+        lines.add("Replacements: " + total);
+        for (Map.Entry<ResourceLocation, Long> entry : replacements) {
+            lines.add("  " + entry.getKey() + ": " + entry.getValue());
+        }
+
+        lines.add("Configuration problems: " + Diagnostics.count());
+        for (String problem : Diagnostics.report()) {
+            lines.add("  " + problem);
+        }
+        return lines;
+    }
+}
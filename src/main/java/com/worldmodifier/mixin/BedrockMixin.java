@@ -1,14 +1,21 @@
 package com.worldmodifier.mixin;
 
-import com.worldmodifier.WorldModifierConfig;
-import net.minecraft.core.BlockPos;
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.WorldModifierConfig.BedrockPattern;
+import com.worldmodifier.gen.BedrockFloorWriter;
+import com.worldmodifier.metrics.BedrockFloorEvent;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.WorldGenRegion;
 import net.minecraft.world.level.StructureManager;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.levelgen.GenerationStep;
 import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
 import net.minecraft.world.level.levelgen.RandomState;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
@@ -17,11 +24,13 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 /**
  * Mixin to place bedrock at the new world bottom.
+ * The floor itself is written in bulk by {@link BedrockFloorWriter}.
  */
 @Mixin(NoiseBasedChunkGenerator.class)
 public class BedrockMixin {
 
-    private static final BlockState BEDROCK = Blocks.BEDROCK.defaultBlockState();
+    // Seeds the GRADIENT pattern; distinct from vanilla's own bedrock_floor random
+    private static final ResourceLocation FLOOR_RANDOM = new ResourceLocation(WorldModifier.MODID, "bedrock_floor");
 
     /**
      * Injects after applyCarvers to place bedrock at the bottom of the world.
@@ -40,24 +49,33 @@ public class BedrockMixin {
             return;
         }
 
-        // Skip if using default preset (vanilla behavior)
-        if (!WorldModifierConfig.isWorldModificationActive()) {
+        // Skip dimensions without a profile and default presets (vanilla behavior)
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding == null) {
+            return;
+        }
+        WorldGenProfile profile = ChunkProfiles.pin(chunk, binding);
+        if (!profile.worldModificationActive) {
             return;
         }
 
-        int bedrockLevel = WorldModifierConfig.getBedrockLevel();
-        int minY = Math.floorDiv(bedrockLevel, 16) * 16; // Round down to 16
-        int chunkX = chunk.getPos().getMinBlockX();
-        int chunkZ = chunk.getPos().getMinBlockZ();
+        BedrockFloorEvent event = new BedrockFloorEvent();
+        event.begin();
 
-        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        PositionalRandomFactory random = profile.bedrockPattern == BedrockPattern.GRADIENT
+                ? randomState.getOrCreateRandomFactory(FLOOR_RANDOM)
+                : null;
+        if (BedrockFloorWriter.write(chunk, profile, random) > 0) {
+            WorldModifierMetrics.BEDROCK_FLOORS.increment();
+        }
 
-        // Place flat bedrock layer at the bottom
-        for (int x = 0; x < 16; x++) {
-            for (int z = 0; z < 16; z++) {
-                pos.set(chunkX + x, minY, chunkZ + z);
-                chunk.setBlockState(pos, BEDROCK, false);
-            }
+        event.end();
+        if (event.shouldCommit()) {
+            event.chunkX = chunk.getPos().x;
+            event.chunkZ = chunk.getPos().z;
+            event.dimension = region.getLevel().dimension().location().toString();
+            event.floorY = profile.minY;
+            event.commit();
         }
     }
 }
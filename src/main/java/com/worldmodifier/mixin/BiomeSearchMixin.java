@@ -0,0 +1,108 @@
+package com.worldmodifier.mixin;
+
+import com.mojang.datafixers.util.Pair;
+import com.worldmodifier.biome.BiomeFilterTable;
+import com.worldmodifier.biome.BiomeRegionIndex;
+import com.worldmodifier.biome.FilteredBiomeSource;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Climate;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.function.Predicate;
+
+/**
+ * Mixin to short-cut biome searches (/locate biome) on filtered biome sources.
+ *
+ * Design: Vanilla checks the predicate against possibleBiomes(), which still lists biomes the
+ * filter replaces, so a search for one of them scans the whole radius and finds nothing. This
+ * checks against the biomes the filter can produce instead and returns at once if none match.
+ * Otherwise, once the region index knows some fully generated regions, the search runs vanilla's
+ * spiral itself and skips the sample points in regions known to lack a matching biome.
+ *
+ * Contract: Returns the same match as vanilla: the spiral order is unchanged, and a point is
+ * only skipped where every chunk of its region was filled from the current filter table without
+ * a matching biome. Searches never return a biome the filter would not generate.
+ */
+@Mixin(BiomeSource.class)
+public abstract class BiomeSearchMixin {
+
+    @Inject(method = "findClosestBiome3d", at = @At("HEAD"), cancellable = true)
+    private void worldmodifier$searchFiltered(BlockPos pos, int radius, int horizontalStep, int verticalStep,
+                                              Predicate<Holder<Biome>> predicate, Climate.Sampler sampler,
+                                              LevelReader level,
+                                              CallbackInfoReturnable<Pair<BlockPos, Holder<Biome>>> cir) {
+        if (!((Object) this instanceof FilteredBiomeSource filtered)) {
+            return;
+        }
+        BiomeFilterTable table = filtered.worldmodifier$currentFilterTable();
+        if (table == null) {
+            return;
+        }
+
+        BiomeRegionIndex index = table.regionIndex();
+        long[] mask = index.mask(predicate);
+        if (BiomeRegionIndex.isEmpty(mask)) {
+            WorldModifierMetrics.BIOME_SEARCHES_SKIPPED.increment();
+            cir.setReturnValue(null);
+            return;
+        }
+        if (!index.hasCompleteRegions()) {
+            // Nothing to skip yet
+            return;
+        }
+
+        // Same sample points and order as BiomeSource.findClosestBiome3d
+        BiomeSource source = (BiomeSource) (Object) this;
+        int steps = Math.floorDiv(radius, horizontalStep);
+        int[] heights = Mth.outFromOrigin(pos.getY(), level.getMinBuildHeight() + 1, level.getMaxBuildHeight(),
+                verticalStep).toArray();
+        long lastRegion = 0;
+        boolean lastLacks = false;
+        boolean first = true;
+        boolean skipped = false;
+        Pair<BlockPos, Holder<Biome>> found = null;
+        for (BlockPos.MutableBlockPos offset : BlockPos.spiralAround(BlockPos.ZERO, steps, Direction.EAST, Direction.SOUTH)) {
+            int x = pos.getX() + offset.getX() * horizontalStep;
+            int z = pos.getZ() + offset.getZ() * horizontalStep;
+            // The spiral mostly stays within a region, so the index is only asked when it leaves one
+            long region = ChunkPos.asLong(x >> 9, z >> 9);
+            if (first || region != lastRegion) {
+                first = false;
+                lastRegion = region;
+                lastLacks = index.lacks(mask, region);
+            }
+            if (lastLacks) {
+                skipped = true;
+                continue;
+            }
+            int quartX = QuartPos.fromBlock(x);
+            int quartZ = QuartPos.fromBlock(z);
+            for (int y : heights) {
+                Holder<Biome> biome = source.getNoiseBiome(quartX, QuartPos.fromBlock(y), quartZ, sampler);
+                if (predicate.test(biome)) {
+                    found = Pair.of(new BlockPos(x, y, z), biome);
+                    break;
+                }
+            }
+            if (found != null) {
+                break;
+            }
+        }
+        if (skipped) {
+            WorldModifierMetrics.BIOME_SEARCHES_INDEXED.increment();
+        }
+        cir.setReturnValue(found);
+    }
+}
@@ -0,0 +1,63 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.biome.BiomeFilterTable;
+import com.worldmodifier.biome.BiomeTileStore;
+import com.worldmodifier.biome.FilteredBiomeSource;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.MultiNoiseBiomeSource;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to save a chunk's filtered biomes to its dimension's {@link BiomeTileStore} once they
+ * have been filled from noise, and to record them in the filter table's
+ * {@link com.worldmodifier.biome.BiomeRegionIndex}.
+ *
+ * Design: Only chunks whose biomes came straight from the biome source are stored: blending
+ * next to old chunks and below-zero retrogen of upgraded chunks change them afterwards. Chunks
+ * pinned to a profile from before a reload are skipped too, so tiles and the region index only
+ * ever hold results of the current filter table.
+ */
+@Mixin(NoiseBasedChunkGenerator.class)
+public class BiomeTileStoreMixin {
+
+    @Inject(method = "doCreateBiomes", at = @At("RETURN"))
+    private void worldmodifier$storeBiomes(Blender blender, RandomState randomState,
+                                           StructureManager structureManager, ChunkAccess chunk,
+                                           CallbackInfo ci) {
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding == null) {
+            return;
+        }
+        if (blender != Blender.empty() || chunk.getBelowZeroRetrogen() != null
+                || ChunkProfiles.pin(chunk, binding) != binding.profile()) {
+            return;
+        }
+        BiomeSource source = ((ChunkGenerator) (Object) this).getBiomeSource();
+        if (!(source instanceof FilteredBiomeSource filtered)) {
+            return;
+        }
+        BiomeFilterTable table = filtered.worldmodifier$currentFilterTable();
+        if (table == null || table.profile != binding.profile()) {
+            return;
+        }
+        table.regionIndex().record(chunk);
+        // Only the multi-noise source reads the tiles back; the End's biomes are cheap to sample
+        BiomeTileStore store = binding.tileStore();
+        if (store != null && source instanceof MultiNoiseBiomeSource) {
+            // Re-checked under the tile's lock, in case a reload lands while the chunk is stored
+            store.putChunk(table.configHash(), chunk, () -> table.profile == binding.profile());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.dimension.ChunkProfiles;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+/**
+ * Mixin to give every chunk a slot for the profile it generates with.
+ * See {@link ChunkProfiles}.
+ */
+@Mixin(ChunkAccess.class)
+public class ChunkPinMixin implements ChunkProfiles.PinnedChunk {
+
+    // Set by the first generation stage that reads a profile; never cleared
+    @Unique
+    private volatile ChunkProfiles.Pin worldmodifier$pin;
+
+    @Override
+    public ChunkProfiles.Pin worldmodifier$pin() {
+        return worldmodifier$pin;
+    }
+
+    @Override
+    public void worldmodifier$setPin(ChunkProfiles.Pin pin) {
+        worldmodifier$pin = pin;
+    }
+}
@@ -0,0 +1,42 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to pin the chunk's profile while its biomes are filled from noise, so every
+ * getNoiseBiome call for the chunk filters with the same table.
+ * Runs on the worker thread that fills the biomes, inside the async part of createBiomes.
+ */
+@Mixin(NoiseBasedChunkGenerator.class)
+public class CreateBiomesPinMixin {
+
+    @Inject(method = "doCreateBiomes", at = @At("HEAD"))
+    private void worldmodifier$pinBiomes(Blender blender, RandomState randomState,
+                                         StructureManager structureManager, ChunkAccess chunk,
+                                         CallbackInfo ci) {
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding != null) {
+            ChunkProfiles.begin(chunk, binding);
+        }
+    }
+
+    @Inject(method = "doCreateBiomes", at = @At("RETURN"))
+    private void worldmodifier$unpinBiomes(Blender blender, RandomState randomState,
+                                           StructureManager structureManager, ChunkAccess chunk,
+                                           CallbackInfo ci) {
+        if (((DimensionBound) this).worldmodifier$binding() != null) {
+            ChunkProfiles.end();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.worldmodifier.mixin;
 
-import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
 import net.minecraft.world.level.dimension.DimensionType;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -10,22 +13,30 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 /**
  * Mixin to override the dimension type's min/max build height.
  * This prevents players from placing blocks below the configured bedrock level.
+ * Only dimension types bound to a configured dimension are changed.
  */
 @Mixin(DimensionType.class)
-public class DimensionTypeMixin {
+public class DimensionTypeMixin implements DimensionBound {
+
+    // Set by DimensionProfiles when the server starts; null for dimensions without a profile
+    @Unique
+    private volatile DimensionBinding worldmodifier$binding;
 
     /**
      * Intercepts minY() to return custom minimum Y level.
      */
     @Inject(method = "minY", at = @At("HEAD"), cancellable = true)
     private void worldmodifier$overrideMinY(CallbackInfoReturnable<Integer> cir) {
-        if (!WorldModifierConfig.isWorldModificationActive()) {
+        DimensionBinding binding = worldmodifier$binding;
+        if (binding == null) {
+            return;
+        }
+        WorldGenProfile profile = binding.profile();
+        if (!profile.worldModificationActive) {
             return;
         }
-        int bedrockLevel = WorldModifierConfig.getBedrockLevel();
-        // Round down to nearest 16 (Minecraft requires min_y to be divisible by 16)
-        int newMinY = Math.floorDiv(bedrockLevel, 16) * 16;
-        cir.setReturnValue(newMinY);
+        // Already rounded down to nearest 16 (Minecraft requires min_y to be divisible by 16)
+        cir.setReturnValue(profile.minY);
     }
 
     /**
@@ -34,19 +45,25 @@ public class DimensionTypeMixin {
      */
     @Inject(method = "height", at = @At("HEAD"), cancellable = true)
     private void worldmodifier$overrideHeight(CallbackInfoReturnable<Integer> cir) {
-        if (!WorldModifierConfig.isWorldModificationActive()) {
+        DimensionBinding binding = worldmodifier$binding;
+        if (binding == null) {
             return;
         }
-        int bedrockLevel = WorldModifierConfig.getBedrockLevel();
-        int maxHeight = WorldModifierConfig.getMaxHeight();
+        WorldGenProfile profile = binding.profile();
+        if (!profile.worldModificationActive) {
+            return;
+        }
+        // Precomputed from the rounded maxY and minY
+        cir.setReturnValue(profile.height);
+    }
 
-        // Round minY down to nearest 16 (Minecraft requires divisible by 16)
-        int newMinY = Math.floorDiv(bedrockLevel, 16) * 16;
-        // Round maxHeight up to nearest 16 (Minecraft requires divisible by 16)
-        int roundedMaxHeight = ((maxHeight + 15) / 16) * 16;
+    @Override
+    public DimensionBinding worldmodifier$binding() {
+        return worldmodifier$binding;
+    }
 
-        // Height = maxY - minY
-        int newHeight = roundedMaxHeight - newMinY;
-        cir.setReturnValue(newHeight);
+    @Override
+    public void worldmodifier$bind(DimensionBinding binding) {
+        worldmodifier$binding = binding;
     }
 }
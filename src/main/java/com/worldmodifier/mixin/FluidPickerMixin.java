@@ -0,0 +1,87 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.gen.SeaLevelFluidPicker;
+import com.worldmodifier.metrics.AquiferOverrideEvent;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.levelgen.Aquifer;
+import net.minecraft.world.level.levelgen.DensityFunctions;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.NoiseSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+
+/**
+ * Mixin to hand every noise chunk a fluid picker for the custom sea level.
+ *
+ * Design: Vanilla memoizes its global fluid picker per generator, so it would keep the sea level
+ * of the first profile it saw. Swapping the picker where each NoiseChunk is created applies the
+ * current profile once per chunk, and nothing runs per block. The profile is the generator's
+ * own dimension profile (see {@link SeaLevelMixin}).
+ */
+@Mixin(NoiseBasedChunkGenerator.class)
+public class FluidPickerMixin {
+
+    /**
+     * Supplies the sea level picker to the noise chunk used for terrain generation.
+     */
+    @ModifyArg(method = "createNoiseChunk",
+            at = @At(value = "INVOKE",
+                    target = "Lnet/minecraft/world/level/levelgen/NoiseChunk;forChunk(Lnet/minecraft/world/level/chunk/ChunkAccess;Lnet/minecraft/world/level/levelgen/RandomState;Lnet/minecraft/world/level/levelgen/DensityFunctions$BeardifierOrMarker;Lnet/minecraft/world/level/levelgen/NoiseGeneratorSettings;Lnet/minecraft/world/level/levelgen/Aquifer$FluidPicker;Lnet/minecraft/world/level/levelgen/blending/Blender;)Lnet/minecraft/world/level/levelgen/NoiseChunk;"),
+            index = 4)
+    private Aquifer.FluidPicker worldmodifier$chunkFluidPicker(ChunkAccess chunk, RandomState randomState,
+                                                                DensityFunctions.BeardifierOrMarker beardifier,
+                                                                NoiseGeneratorSettings settings,
+                                                                Aquifer.FluidPicker picker, Blender blender) {
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding == null) {
+            return picker;
+        }
+        // Created during the biome stage and reused for the terrain, so both see the chunk's pin
+        WorldGenProfile profile = ChunkProfiles.pin(chunk, binding);
+        if (!profile.customSeaLevel) {
+            return picker;
+        }
+
+        SeaLevelFluidPicker seaLevelPicker = SeaLevelFluidPicker.create(profile, settings);
+
+        AquiferOverrideEvent event = new AquiferOverrideEvent();
+        if (event.shouldCommit()) {
+            event.chunkX = chunk.getPos().x;
+            event.chunkZ = chunk.getPos().z;
+            event.seaLevel = profile.seaLevel;
+            event.flooded = seaLevelPicker.floods() && settings.isAquifersEnabled();
+            event.commit();
+        }
+        return seaLevelPicker;
+    }
+
+    /**
+     * Supplies the sea level picker to the single-column noise chunk used for height queries,
+     * so structure placement sees the same fluids as the generated terrain.
+     */
+    @ModifyArg(method = "iterateNoiseColumn",
+            at = @At(value = "INVOKE",
+                    target = "Lnet/minecraft/world/level/levelgen/NoiseChunk;<init>(ILnet/minecraft/world/level/levelgen/RandomState;IILnet/minecraft/world/level/levelgen/NoiseSettings;Lnet/minecraft/world/level/levelgen/DensityFunctions$BeardifierOrMarker;Lnet/minecraft/world/level/levelgen/NoiseGeneratorSettings;Lnet/minecraft/world/level/levelgen/Aquifer$FluidPicker;Lnet/minecraft/world/level/levelgen/blending/Blender;)V"),
+            index = 7)
+    private Aquifer.FluidPicker worldmodifier$columnFluidPicker(int cellCountXZ, RandomState randomState,
+                                                                 int firstCellX, int firstCellZ,
+                                                                 NoiseSettings noiseSettings,
+                                                                 DensityFunctions.BeardifierOrMarker beardifier,
+                                                                 NoiseGeneratorSettings settings,
+                                                                 Aquifer.FluidPicker picker, Blender blender) {
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding == null) {
+            return picker;
+        }
+        WorldGenProfile profile = binding.profile();
+        return profile.customSeaLevel ? SeaLevelFluidPicker.create(profile, settings) : picker;
+    }
+}
@@ -0,0 +1,72 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.gen.SharedEmptySections;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to give a section sharing the empty block container a container of its own before it
+ * is written. See {@link SharedEmptySections}.
+ */
+@Mixin(LevelChunkSection.class)
+public class LevelChunkSectionMixin implements SharedEmptySections.Shareable {
+
+    @Shadow
+    @Final
+    @Mutable
+    private PalettedContainer<BlockState> states;
+
+    // Set once the section belongs to a tall dimension's chunk, so packet reads may share again
+    @Unique
+    private boolean worldmodifier$shareable;
+
+    @Override
+    public void worldmodifier$share() {
+        worldmodifier$shareable = true;
+        if (states != SharedEmptySections.AIR && SharedEmptySections.isAir(states)) {
+            states = SharedEmptySections.AIR;
+        }
+    }
+
+    /**
+     * acquire() precedes bulk writes (noise filling, features) and read() overwrites the blocks
+     * from a chunk packet.
+     */
+    @Inject(method = {"acquire", "read"}, at = @At("HEAD"))
+    private void worldmodifier$unshareBeforeWrite(CallbackInfo ci) {
+        worldmodifier$unshare();
+    }
+
+    @Inject(method = "setBlockState(IIILnet/minecraft/world/level/block/state/BlockState;Z)Lnet/minecraft/world/level/block/state/BlockState;",
+            at = @At("HEAD"))
+    private void worldmodifier$unshareBeforeSet(CallbackInfoReturnable<BlockState> cir) {
+        worldmodifier$unshare();
+    }
+
+    /**
+     * A client section of a tall dimension that received only air shares the container again.
+     */
+    @Inject(method = "read", at = @At("RETURN"))
+    private void worldmodifier$shareAfterRead(CallbackInfo ci) {
+        if (worldmodifier$shareable) {
+            worldmodifier$share();
+        }
+    }
+
+    @Unique
+    private void worldmodifier$unshare() {
+        if (states == SharedEmptySections.AIR) {
+            states = SharedEmptySections.AIR.copy();
+        }
+    }
+}
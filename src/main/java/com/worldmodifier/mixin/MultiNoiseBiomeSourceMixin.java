@@ -1,23 +1,36 @@
 package com.worldmodifier.mixin;
 
+import com.google.common.collect.ImmutableSet;
+import com.worldmodifier.WorldGenProfile;
 import com.worldmodifier.WorldModifier;
-import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.biome.BiomeFilterTable;
+import com.worldmodifier.biome.BiomeTileStore;
+import com.worldmodifier.biome.FilteredBiomeSource;
+import com.worldmodifier.biome.QuartBiomeCache;
+import com.worldmodifier.biome.SurveyableBiomeSource;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.metrics.BiomeFilterEvent;
+import com.worldmodifier.metrics.WorldModifierMetrics;
 import net.minecraft.core.Holder;
-import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
+import net.minecraft.core.QuartPos;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeSource;
 import net.minecraft.world.level.biome.Climate;
 import net.minecraft.world.level.biome.MultiNoiseBiomeSource;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Mixin to intercept biome selection in MultiNoiseBiomeSource.
@@ -26,12 +39,94 @@ import java.util.Optional;
  * to determine which biome should be placed at a given location. If the selected biome
  * is not in the whitelist, it returns a replacement biome from the whitelist based on
  * the coordinates, ensuring consistent biome regions.
+ *
+ * With the CLIMATE replacement strategy, the climate search itself is redirected to a
+ * parameter list holding only allowed biomes, so the nearest allowed biome is picked directly.
+ *
+ * Each source uses the profile of the dimension it is bound to. The Nether also uses this
+ * source, so it is only filtered when it has a profile of its own.
  */
 @Mixin(MultiNoiseBiomeSource.class)
-public class MultiNoiseBiomeSourceMixin {
+public class MultiNoiseBiomeSourceMixin implements FilteredBiomeSource, SurveyableBiomeSource, DimensionBound {
+
+    // Set by DimensionProfiles when the server starts; null for dimensions without a profile
+    @Unique
+    private volatile DimensionBinding worldmodifier$binding;
+
+    // Immutable table published for all worldgen threads; swapped atomically on reload
+    @Unique
+    private volatile BiomeFilterTable worldmodifier$filterTable;
+
+    // Table of the profile before the last reload, for chunks still generating with it
+    @Unique
+    private volatile BiomeFilterTable worldmodifier$previousFilterTable;
+
+    // Unfiltered result of collectPossibleBiomes, captured before anything was reported
+    @Unique
+    private volatile List<Holder<Biome>> worldmodifier$allBiomes;
 
+    // What possibleBiomes() reported when it was filtered; fixed for the life of the source
     @Unique
-    private Map<ResourceLocation, Holder<Biome>> worldmodifier$biomeHolderCache = new HashMap<>();
+    @Nullable
+    private volatile Set<Holder<Biome>> worldmodifier$reportedBiomes;
+
+    @Shadow
+    private Climate.ParameterList<Holder<Biome>> parameters() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Answers from the quart cache or the dimension's biome tiles, or searches the allowed-only
+     * climate parameters when the CLIMATE strategy is active. Cancelling here skips both
+     * vanilla's search and the post-filter below.
+     */
+    @Inject(method = "getNoiseBiome", at = @At("HEAD"), cancellable = true)
+    private void worldmodifier$pickAllowedBiome(int x, int y, int z, Climate.Sampler sampler,
+                                                  CallbackInfoReturnable<Holder<Biome>> cir) {
+        WorldGenProfile profile = worldmodifier$profile();
+        if (!worldmodifier$isFiltering(profile)) {
+            return;
+        }
+        WorldModifierMetrics.NOISE_BIOME_CALLS.increment();
+        BiomeFilterEvent.start();
+
+        BiomeFilterTable table = worldmodifier$getFilterTable(profile);
+        QuartBiomeCache cache = table.cache();
+        if (cache != null) {
+            Holder<Biome> cached = cache.get(x, y, z);
+            if (cached != null) {
+                cir.setReturnValue(cached);
+                worldmodifier$commit(x, y, z, null, cached);
+                return;
+            }
+        }
+
+        // Tiles are only written with the current profile, so chunks pinned before a reload skip them
+        BiomeTileStore store = worldmodifier$binding.tileStore();
+        if (store != null && profile == worldmodifier$binding.profile()) {
+            Holder<Biome> stored = store.get(table.configHash(), x, y, z);
+            if (stored != null) {
+                WorldModifierMetrics.TILE_STORE_HITS.increment();
+                if (cache != null) {
+                    cache.put(x, y, z, stored);
+                }
+                cir.setReturnValue(stored);
+                worldmodifier$commit(x, y, z, null, stored);
+                return;
+            }
+        }
+
+        Climate.ParameterList<Holder<Biome>> allowed = table.allowedParameters();
+        if (allowed != null) {
+            WorldModifierMetrics.CLIMATE_SEARCHES.increment();
+            Holder<Biome> biome = allowed.findValue(sampler.sample(x, y, z));
+            if (cache != null) {
+                cache.put(x, y, z, biome);
+            }
+            cir.setReturnValue(biome);
+            worldmodifier$commit(x, y, z, null, biome);
+        }
+    }
 
     /**
      * Intercepts biome selection to filter based on whitelist.
@@ -45,7 +140,8 @@ public class MultiNoiseBiomeSourceMixin {
     @Inject(method = "getNoiseBiome", at = @At("RETURN"), cancellable = true)
     private void worldmodifier$filterBiome(int x, int y, int z, Climate.Sampler sampler,
                                              CallbackInfoReturnable<Holder<Biome>> cir) {
-        if (!WorldModifierConfig.isFilteringActive()) {
+        WorldGenProfile profile = worldmodifier$profile();
+        if (!worldmodifier$isFiltering(profile)) {
             return;
         }
 
@@ -54,50 +150,173 @@ public class MultiNoiseBiomeSourceMixin {
             return;
         }
 
-        // Get the biome's resource location
-        Optional<ResourceKey<Biome>> keyOpt = originalBiome.unwrapKey();
-        if (keyOpt.isEmpty()) {
+        // Identity lookup in the precompiled table (rebuilt when the profile changes)
+        BiomeFilterTable table = worldmodifier$getFilterTable(profile);
+        Holder<Biome> replacement = table.replace(originalBiome, x, z);
+        QuartBiomeCache cache = table.cache();
+        if (cache != null) {
+            cache.put(x, y, z, replacement);
+        }
+        if (replacement != originalBiome) {
+            cir.setReturnValue(replacement);
+        }
+        worldmodifier$commit(x, y, z, originalBiome, replacement);
+    }
+
+    /**
+     * Ends the lookup's biome filter event and commits it if a recording wants it, so the biome
+     * ids are never formatted otherwise.
+     */
+    @Unique
+    private void worldmodifier$commit(int x, int y, int z, @Nullable Holder<Biome> original, Holder<Biome> replacement) {
+        BiomeFilterEvent event = BiomeFilterEvent.finish();
+        if (event == null) {
             return;
         }
+        event.chunkX = QuartPos.toSection(x);
+        event.chunkZ = QuartPos.toSection(z);
+        event.quartY = y;
+        event.dimension = worldmodifier$binding.dimension().toString();
+        event.original = original == null ? "" : BiomeFilterEvent.name(original);
+        event.replacement = BiomeFilterEvent.name(replacement);
+        event.commit();
+    }
 
-        ResourceLocation biomeId = keyOpt.get().location();
+    @Override
+    public BiomeFilterTable worldmodifier$currentFilterTable() {
+        WorldGenProfile profile = worldmodifier$profile();
+        return worldmodifier$isFiltering(profile) ? worldmodifier$getFilterTable(profile) : null;
+    }
 
-        // Check if biome is allowed based on current mode (whitelist/blacklist)
-        if (WorldModifierConfig.isBiomeAllowed(biomeId)) {
+    /**
+     * Samples the climate once and resolves both the vanilla pick and the filtered result,
+     * bypassing the quart cache and the metrics.
+     */
+    @Override
+    public void worldmodifier$sample(int x, int y, int z, Climate.Sampler sampler, Sample out) {
+        Climate.TargetPoint target = sampler.sample(x, y, z);
+        Holder<Biome> original = parameters().findValue(target);
+        out.original = original;
+
+        WorldGenProfile profile = worldmodifier$profile();
+        if (!worldmodifier$isFiltering(profile)) {
+            out.filtered = original;
             return;
         }
+        BiomeFilterTable table = worldmodifier$getFilterTable(profile);
+        Climate.ParameterList<Holder<Biome>> allowed = table.allowedParameters();
+        out.filtered = allowed != null ? allowed.findValue(target) : table.peek(original, x, z);
+    }
 
-        // Biome not allowed - use fallback biome
-        Holder<Biome> replacement = worldmodifier$getFallbackBiome();
-        if (replacement != null) {
-            cir.setReturnValue(replacement);
+    /**
+     * Reports only the biomes the filter can produce when filterPossibleBiomes is on, so feature
+     * sorting and the per-step feature caches skip every biome that can never generate.
+     * possibleBiomes() memoizes this, so the reported set is frozen from then on.
+     */
+    @Inject(method = "collectPossibleBiomes", at = @At("RETURN"), cancellable = true)
+    private void worldmodifier$filterPossibleBiomes(CallbackInfoReturnable<Stream<Holder<Biome>>> cir) {
+        List<Holder<Biome>> all = cir.getReturnValue().distinct().toList();
+        worldmodifier$allBiomes = all;
+
+        WorldGenProfile profile = worldmodifier$profile();
+        if (profile == null || !profile.filteringActive || !profile.filterPossibleBiomes) {
+            cir.setReturnValue(all.stream());
+            return;
         }
+
+        BiomeFilterTable table = BiomeFilterTable.build(profile, all, parameters(), null,
+                worldmodifier$binding.fallbacks(), worldmodifier$binding.seed(), worldmodifier$sourceName());
+        worldmodifier$filterTable = table;
+        worldmodifier$reportedBiomes = ImmutableSet.copyOf(table.producible());
+        WorldModifier.LOGGER.info("[MultiNoiseBiomeSourceMixin.filterPossibleBiomes]: Reporting {} of {} biomes",
+                table.producible().size(), all.size());
+        cir.setReturnValue(table.producible().stream());
+    }
+
+    @Override
+    public DimensionBinding worldmodifier$binding() {
+        return worldmodifier$binding;
+    }
+
+    @Override
+    public void worldmodifier$bind(DimensionBinding binding) {
+        worldmodifier$binding = binding;
+    }
+
+    /**
+     * @return the profile pinned by the chunk being generated on this thread, else the current
+     *         profile of the dimension this source is bound to; null if it has none
+     */
+    @Unique
+    @Nullable
+    private WorldGenProfile worldmodifier$profile() {
+        DimensionBinding binding = worldmodifier$binding;
+        return binding == null ? null : ChunkProfiles.resolve(binding);
     }
 
     /**
-     * Gets the fallback replacement biome holder.
-     * Uses caching to avoid repeated lookups.
+     * @return true if results must go through the filter table: filtering is on, or the
+     *         reported biome set is frozen and must not be left even with filtering off
      */
     @Unique
-    private Holder<Biome> worldmodifier$getFallbackBiome() {
-        ResourceLocation fallbackBiome = WorldModifierConfig.getFallbackBiome();
+    private boolean worldmodifier$isFiltering(@Nullable WorldGenProfile profile) {
+        return profile != null && (profile.filteringActive || worldmodifier$reportedBiomes != null);
+    }
 
-        // Check cache first
-        if (worldmodifier$biomeHolderCache.containsKey(fallbackBiome)) {
-            return worldmodifier$biomeHolderCache.get(fallbackBiome);
+    /**
+     * Gets the replacement table for the given profile, compiling it on first use after a reload.
+     * The table of the previous profile is kept, so chunks pinned before a reload do not make
+     * the current table rebuild back and forth.
+     */
+    @Unique
+    private BiomeFilterTable worldmodifier$getFilterTable(WorldGenProfile profile) {
+        BiomeFilterTable table = worldmodifier$filterTable;
+        if (!BiomeFilterTable.isStale(table, profile)) {
+            return table;
         }
+        BiomeFilterTable previous = worldmodifier$previousFilterTable;
+        if (!BiomeFilterTable.isStale(previous, profile)) {
+            return previous;
+        }
+        if (table != null && profile.epoch < table.epoch) {
+            // A chunk pinned before the reload: keep the newer table current
+            previous = worldmodifier$build(profile);
+            worldmodifier$previousFilterTable = previous;
+            return previous;
+        }
+        worldmodifier$previousFilterTable = table;
+        table = worldmodifier$build(profile);
+        worldmodifier$filterTable = table;
+        return table;
+    }
+
+    @Unique
+    private BiomeFilterTable worldmodifier$build(WorldGenProfile profile) {
+        return BiomeFilterTable.build(profile, worldmodifier$getAllBiomes(), parameters(),
+                worldmodifier$reportedBiomes, worldmodifier$binding.fallbacks(), worldmodifier$binding.seed(),
+                worldmodifier$sourceName());
+    }
+
+    @Unique
+    private String worldmodifier$sourceName() {
+        return "MultiNoiseBiomeSource of " + worldmodifier$binding.dimension();
+    }
 
-        // Search through the biome source's possible biomes to find the biome holder
-        BiomeSource self = (BiomeSource) (Object) this;
-        for (Holder<Biome> biomeHolder : self.possibleBiomes()) {
-            Optional<ResourceKey<Biome>> keyOpt = biomeHolder.unwrapKey();
-            if (keyOpt.isPresent() && keyOpt.get().location().equals(fallbackBiome)) {
-                worldmodifier$biomeHolderCache.put(fallbackBiome, biomeHolder);
-                return biomeHolder;
+    /**
+     * @return every biome the source can return, ignoring what possibleBiomes() reports
+     */
+    @Unique
+    private List<Holder<Biome>> worldmodifier$getAllBiomes() {
+        List<Holder<Biome>> all = worldmodifier$allBiomes;
+        if (all == null) {
+            // possibleBiomes() runs collectPossibleBiomes once, which captures the full list
+            BiomeSource self = (BiomeSource) (Object) this;
+            Set<Holder<Biome>> reported = self.possibleBiomes();
+            all = worldmodifier$allBiomes;
+            if (all == null) {
+                all = new ArrayList<>(reported);
             }
         }
-
-        WorldModifier.LOGGER.warn("[MultiNoiseBiomeSourceMixin.getFallbackBiome]: Biome {} not found in biome source's possible biomes", fallbackBiome);
-        return null;
+        return all;
     }
 }
@@ -0,0 +1,37 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.gen.SeaLevelFluidPicker;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.Aquifer;
+import net.minecraft.world.level.levelgen.NoiseChunk;
+import net.minecraft.world.level.levelgen.NoiseRouter;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+/**
+ * Mixin to skip aquifer noise when caves below the sea level are flooded.
+ *
+ * Design: A flooding picker (see {@link SeaLevelFluidPicker}) fills every open block below the sea
+ * level, so aquifer noise could not change the result. The noise aquifer is replaced with
+ * Aquifer.createDisabled, which makes the per-block substance check a single comparison.
+ * The decision is taken from the picker, so it matches the profile the picker was built from.
+ */
+@Mixin(NoiseChunk.class)
+public class NoiseChunkAquiferMixin {
+
+    @Redirect(method = "<init>",
+            at = @At(value = "INVOKE",
+                    target = "Lnet/minecraft/world/level/levelgen/Aquifer;create(Lnet/minecraft/world/level/levelgen/NoiseChunk;Lnet/minecraft/world/level/ChunkPos;Lnet/minecraft/world/level/levelgen/NoiseRouter;Lnet/minecraft/world/level/levelgen/PositionalRandomFactory;IILnet/minecraft/world/level/levelgen/Aquifer$FluidPicker;)Lnet/minecraft/world/level/levelgen/Aquifer;"))
+    private Aquifer worldmodifier$createAquifer(NoiseChunk noiseChunk, ChunkPos chunkPos, NoiseRouter router,
+                                                PositionalRandomFactory random, int minY, int height,
+                                                Aquifer.FluidPicker picker) {
+        if (picker instanceof SeaLevelFluidPicker seaLevelPicker && seaLevelPicker.floods()) {
+            WorldModifierMetrics.FLOODED_AQUIFERS.increment();
+            return Aquifer.createDisabled(picker);
+        }
+        return Aquifer.create(noiseChunk, chunkPos, router, random, minY, height, picker);
+    }
+}
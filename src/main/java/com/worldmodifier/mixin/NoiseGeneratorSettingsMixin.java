@@ -1,8 +1,18 @@
 package com.worldmodifier.mixin;
 
-import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.gen.TerrainBandFiller;
+import com.worldmodifier.metrics.Diagnostics;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.levelgen.NoiseSettings;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -10,22 +20,44 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 /**
  * Mixin to override the noise settings to change the minimum Y level.
  * This affects terrain generation boundaries.
+ * Only noise settings bound to a configured dimension are changed.
+ *
+ * Vanilla clamps the per-chunk settings every noise chunk and height query is built from to the
+ * datapack's own range, read from the fields rather than the accessors, so noise never runs
+ * outside it however tall the world is. A terrain band clamps them further; see
+ * {@link TerrainBandMixin} for what fills the part of the range it cuts off.
  */
 @Mixin(NoiseSettings.class)
-public class NoiseGeneratorSettingsMixin {
+public class NoiseGeneratorSettingsMixin implements DimensionBound, TerrainBandFiller.NoiseRange {
+
+    // Set by DimensionProfiles when the server starts; null for dimensions without a profile
+    @Unique
+    private volatile DimensionBinding worldmodifier$binding;
+
+    // The datapack's own range; the accessors below may return the profile's instead
+    @Shadow
+    @Final
+    private int minY;
+
+    @Shadow
+    @Final
+    private int height;
 
     /**
      * Intercepts minY() to return custom minimum Y level.
      */
     @Inject(method = "minY", at = @At("HEAD"), cancellable = true)
     private void worldmodifier$overrideMinY(CallbackInfoReturnable<Integer> cir) {
-        if (!WorldModifierConfig.isWorldModificationActive()) {
+        DimensionBinding binding = worldmodifier$binding;
+        if (binding == null) {
             return;
         }
-        int bedrockLevel = WorldModifierConfig.getBedrockLevel();
-        // Round down to nearest 16 (Minecraft requires min_y to be divisible by 16)
-        int newMinY = Math.floorDiv(bedrockLevel, 16) * 16;
-        cir.setReturnValue(newMinY);
+        WorldGenProfile profile = binding.profile();
+        if (!profile.worldModificationActive) {
+            return;
+        }
+        // Already rounded down to nearest 16 (Minecraft requires min_y to be divisible by 16)
+        cir.setReturnValue(profile.minY);
     }
 
     /**
@@ -34,19 +66,74 @@ public class NoiseGeneratorSettingsMixin {
      */
     @Inject(method = "height", at = @At("HEAD"), cancellable = true)
     private void worldmodifier$overrideHeight(CallbackInfoReturnable<Integer> cir) {
-        if (!WorldModifierConfig.isWorldModificationActive()) {
+        DimensionBinding binding = worldmodifier$binding;
+        if (binding == null) {
+            return;
+        }
+        WorldGenProfile profile = binding.profile();
+        if (!profile.worldModificationActive) {
             return;
         }
-        int bedrockLevel = WorldModifierConfig.getBedrockLevel();
-        int maxHeight = WorldModifierConfig.getMaxHeight();
+        // Precomputed from the rounded maxY and minY
+        cir.setReturnValue(profile.height);
+    }
 
-        // Round minY down to nearest 16 (Minecraft requires divisible by 16)
-        int newMinY = Math.floorDiv(bedrockLevel, 16) * 16;
-        // Round maxHeight up to nearest 16 (Minecraft requires divisible by 16)
-        int roundedMaxHeight = ((maxHeight + 15) / 16) * 16;
+    /**
+     * Clamps the settings of one chunk or column to the terrain band, rounded out to whole noise
+     * cells. The band can only narrow vanilla's clamp, never widen it. A band entirely outside
+     * the datapack's range would leave no cells, and vanilla skips filling such chunks altogether,
+     * so it is ignored with a warning instead. The result is a new, unbound record, so its
+     * accessors are not overridden again.
+     */
+    @Inject(method = "clampToHeightAccessor", at = @At("RETURN"), cancellable = true)
+    private void worldmodifier$clampToTerrainBand(LevelHeightAccessor heightAccessor,
+                                                  CallbackInfoReturnable<NoiseSettings> cir) {
+        DimensionBinding binding = worldmodifier$binding;
+        if (binding == null) {
+            return;
+        }
+        WorldGenProfile profile = heightAccessor instanceof ChunkAccess chunk
+                ? ChunkProfiles.pin(chunk, binding)
+                : binding.profile();
+        if (!profile.terrainBandActive) {
+            return;
+        }
+
+        NoiseSettings clamped = cir.getReturnValue();
+        int cellHeight = clamped.getCellHeight();
+        int bottom = Math.floorDiv(profile.terrainBandBottom(), cellHeight) * cellHeight;
+        int top = -Math.floorDiv(-profile.terrainBandTop(), cellHeight) * cellHeight;
+        int from = Math.max(clamped.minY(), bottom);
+        int to = Math.min(clamped.minY() + clamped.height(), top);
+        if (to <= from && clamped.height() > 0) {
+            Diagnostics.warnOnce("terrain-band:" + binding.dimension(),
+                    "[NoiseGeneratorSettingsMixin.clampToTerrainBand]: Terrain band {} to {} of {} lies outside its noise range {} to {}, ignoring it",
+                    profile.terrainBandBottom(), profile.terrainBandTop(), binding.dimension(), minY, minY + height);
+            return;
+        }
+        if (from != clamped.minY() || to != clamped.minY() + clamped.height()) {
+            cir.setReturnValue(new NoiseSettings(from, Math.max(0, to - from),
+                    clamped.noiseSizeHorizontal(), clamped.noiseSizeVertical()));
+        }
+    }
+
+    @Override
+    public int worldmodifier$noiseMinY() {
+        return minY;
+    }
+
+    @Override
+    public int worldmodifier$noiseMaxY() {
+        return minY + height;
+    }
+
+    @Override
+    public DimensionBinding worldmodifier$binding() {
+        return worldmodifier$binding;
+    }
 
-        // Height = maxY - minY
-        int newHeight = roundedMaxHeight - newMinY;
-        cir.setReturnValue(newHeight);
+    @Override
+    public void worldmodifier$bind(DimensionBinding binding) {
+        worldmodifier$binding = binding;
     }
 }
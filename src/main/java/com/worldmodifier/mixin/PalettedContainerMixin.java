@@ -0,0 +1,45 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.gen.SharedEmptySections;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to keep the shared empty block container read-only. See {@link SharedEmptySections}.
+ */
+@Mixin(PalettedContainer.class)
+public class PalettedContainerMixin<T> {
+
+    /**
+     * Saves and packet writes of different chunks read the shared container at the same time;
+     * its threading detector would take that for a race.
+     */
+    @Inject(method = {"acquire", "release"}, at = @At("HEAD"), cancellable = true)
+    private void worldmodifier$skipSharedLock(CallbackInfo ci) {
+        if ((Object) this == SharedEmptySections.AIR) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = {"set", "read"}, at = @At("HEAD"))
+    private void worldmodifier$rejectSharedWrite(CallbackInfo ci) {
+        worldmodifier$checkWritable();
+    }
+
+    @Inject(method = {"getAndSet", "getAndSetUnchecked"}, at = @At("HEAD"))
+    private void worldmodifier$rejectSharedSwap(CallbackInfoReturnable<T> cir) {
+        worldmodifier$checkWritable();
+    }
+
+    @Unique
+    private void worldmodifier$checkWritable() {
+        if ((Object) this == SharedEmptySections.AIR) {
+            throw new IllegalStateException("Write to the shared empty section container; write through LevelChunkSection instead");
+        }
+    }
+}
@@ -1,23 +1,48 @@
 package com.worldmodifier.mixin;
 
-import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
 import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 /**
  * Mixin to override the sea level in world generation.
+ *
+ * Design: Also carries the generator's dimension binding, which {@link FluidPickerMixin} and
+ * {@link BedrockMixin} read through {@link DimensionBound}. Generators of dimensions without a
+ * profile are never bound and stay vanilla.
  */
 @Mixin(NoiseBasedChunkGenerator.class)
-public class SeaLevelMixin {
+public class SeaLevelMixin implements DimensionBound {
+
+    // Set by DimensionProfiles when the server starts; null for dimensions without a profile
+    @Unique
+    private volatile DimensionBinding worldmodifier$binding;
 
     @Inject(method = "getSeaLevel", at = @At("HEAD"), cancellable = true)
     private void worldmodifier$overrideSeaLevel(CallbackInfoReturnable<Integer> cir) {
-        int seaLevel = WorldModifierConfig.getSeaLevel();
-        if (seaLevel != WorldModifierConfig.DEFAULT_SEA_LEVEL) {
-            cir.setReturnValue(seaLevel);
+        DimensionBinding binding = worldmodifier$binding;
+        if (binding == null) {
+            return;
+        }
+        WorldGenProfile profile = binding.profile();
+        if (profile.customSeaLevel) {
+            cir.setReturnValue(profile.seaLevel);
         }
     }
+
+    @Override
+    public DimensionBinding worldmodifier$binding() {
+        return worldmodifier$binding;
+    }
+
+    @Override
+    public void worldmodifier$bind(DimensionBinding binding) {
+        worldmodifier$binding = binding;
+    }
 }
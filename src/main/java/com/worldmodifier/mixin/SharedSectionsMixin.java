@@ -0,0 +1,38 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.gen.SharedEmptySections;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to share one block container between the empty sections of chunks in dimensions
+ * taller than the overworld, on the server and on clients. See {@link SharedEmptySections}.
+ */
+@Mixin(ChunkAccess.class)
+public class SharedSectionsMixin {
+
+    @Shadow
+    @Final
+    protected LevelChunkSection[] sections;
+
+    @Shadow
+    @Final
+    protected LevelHeightAccessor levelHeightAccessor;
+
+    @Inject(method = "<init>", at = @At("RETURN"))
+    private void worldmodifier$shareEmptySections(CallbackInfo ci) {
+        if (levelHeightAccessor.getSectionsCount() <= SharedEmptySections.MIN_SECTIONS) {
+            return;
+        }
+        for (LevelChunkSection section : sections) {
+            ((SharedEmptySections.Shareable) section).worldmodifier$share();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.biome.BiomeFilterTable;
+import com.worldmodifier.biome.FilteredBiomeSource;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.structure.StructureSet;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to skip structure starts that can never pass the biome check.
+ *
+ * Design: Structure.generate finds a generation point (for jigsaw structures, assembling the
+ * whole piece tree) before it checks the biome there. Under a strict whitelist most structures
+ * have no allowed biome left, e.g. villages in an ocean-only world, so every candidate chunk paid
+ * for that work just to be rejected. The filter table works out once per structure whether any
+ * of its biomes can still generate; structures with none are rejected before any of it runs.
+ */
+@Mixin(ChunkGenerator.class)
+public class StructurePruneMixin {
+
+    @Inject(method = "tryGenerateStructure", at = @At("HEAD"), cancellable = true)
+    private void worldmodifier$pruneFilteredStructure(StructureSet.StructureSelectionEntry entry,
+                                                      StructureManager structureManager,
+                                                      RegistryAccess registryAccess,
+                                                      RandomState randomState,
+                                                      StructureTemplateManager templateManager,
+                                                      long seed,
+                                                      ChunkAccess chunk,
+                                                      ChunkPos chunkPos,
+                                                      SectionPos sectionPos,
+                                                      CallbackInfoReturnable<Boolean> cir) {
+        ChunkGenerator self = (ChunkGenerator) (Object) this;
+        if (!(self.getBiomeSource() instanceof FilteredBiomeSource filtered)) {
+            return;
+        }
+        BiomeFilterTable table = filtered.worldmodifier$currentFilterTable();
+        if (table != null && !table.allowsStructure(entry.structure())) {
+            WorldModifierMetrics.STRUCTURE_STARTS_PRUNED.increment();
+            cir.setReturnValue(false);
+        }
+    }
+}
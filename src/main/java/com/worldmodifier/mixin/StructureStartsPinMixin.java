@@ -0,0 +1,51 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to pin the chunk's profile while its structure starts are placed, so the biome checks
+ * and {@link StructurePruneMixin} use the same filter as the chunk's biomes.
+ * Generators of dimensions without a profile are not bound and skip this.
+ */
+@Mixin(ChunkGenerator.class)
+public class StructureStartsPinMixin {
+
+    @Inject(method = "createStructures", at = @At("HEAD"))
+    private void worldmodifier$pinStructureStarts(RegistryAccess registryAccess,
+                                                  ChunkGeneratorStructureState structureState,
+                                                  StructureManager structureManager,
+                                                  ChunkAccess chunk,
+                                                  StructureTemplateManager templateManager,
+                                                  CallbackInfo ci) {
+        if ((Object) this instanceof DimensionBound bound) {
+            DimensionBinding binding = bound.worldmodifier$binding();
+            if (binding != null) {
+                ChunkProfiles.begin(chunk, binding);
+            }
+        }
+    }
+
+    @Inject(method = "createStructures", at = @At("RETURN"))
+    private void worldmodifier$unpinStructureStarts(RegistryAccess registryAccess,
+                                                    ChunkGeneratorStructureState structureState,
+                                                    StructureManager structureManager,
+                                                    ChunkAccess chunk,
+                                                    StructureTemplateManager templateManager,
+                                                    CallbackInfo ci) {
+        if ((Object) this instanceof DimensionBound bound && bound.worldmodifier$binding() != null) {
+            ChunkProfiles.end();
+        }
+    }
+}
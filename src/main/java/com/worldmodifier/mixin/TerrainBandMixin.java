@@ -0,0 +1,178 @@
+package com.worldmodifier.mixin;
+
+import com.worldmodifier.WorldGenProfile;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.gen.TerrainBandFiller;
+import com.worldmodifier.metrics.WorldModifierMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.NoiseColumn;
+import net.minecraft.world.level.StructureManager;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.NoiseSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import javax.annotation.Nullable;
+
+/**
+ * Mixin to fill the part of the noise range the terrain band cut off once a chunk's noise has
+ * been filled, and to make height queries see the same blocks.
+ *
+ * Design: The noise range handed to doFill is already clamped to the band by
+ * {@link NoiseGeneratorSettingsMixin}, so its first and last cells mark where noise stopped.
+ * From there down to the bottom of the datapack's noise range is written in bulk by
+ * {@link TerrainBandFiller}. Above the band the sections stay air, unless a flooded sea level
+ * lies above it: then they are filled with water up to the sea level or the top of the noise
+ * range, also in bulk. Outside the datapack's range the chunk stays as empty as in vanilla.
+ *
+ * Height queries (structure placement) only see the clamped noise column, so their results are
+ * extended with the same fill.
+ */
+@Mixin(NoiseBasedChunkGenerator.class)
+public class TerrainBandMixin {
+
+    @Inject(method = "doFill", at = @At("RETURN"))
+    private void worldmodifier$fillOutsideBand(Blender blender, StructureManager structureManager,
+                                               RandomState randomState, ChunkAccess chunk,
+                                               int minCellY, int cellCountY,
+                                               CallbackInfoReturnable<ChunkAccess> cir) {
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding == null) {
+            return;
+        }
+        WorldGenProfile profile = ChunkProfiles.pin(chunk, binding);
+        if (!profile.terrainBandActive) {
+            return;
+        }
+        NoiseGeneratorSettings settings = ((NoiseBasedChunkGenerator) (Object) this).generatorSettings().value();
+        TerrainBandFiller.NoiseRange range = worldmodifier$noiseRange(settings);
+        int cellHeight = settings.noiseSettings().getCellHeight();
+        int bandBottom = minCellY * cellHeight;
+        int bandTop = (minCellY + cellCountY) * cellHeight;
+
+        int replaced = TerrainBandFiller.fill(chunk, range.worldmodifier$noiseMinY(), bandBottom, settings.defaultBlock());
+        if (profile.floodsAboveTerrainBand()) {
+            replaced += TerrainBandFiller.fill(chunk, bandTop,
+                    Math.min(profile.seaLevel, range.worldmodifier$noiseMaxY()), settings.defaultFluid());
+        }
+        WorldModifierMetrics.BANDED_SECTIONS.add(replaced);
+    }
+
+    /**
+     * Raises heights the clamped column puts below the band to its bottom if the band cut off
+     * part of the noise range there, and heights below a flooded sea level to the water surface
+     * when the heightmap counts water.
+     */
+    @Inject(method = "getBaseHeight", at = @At("RETURN"), cancellable = true)
+    private void worldmodifier$bandBaseHeight(int x, int z, Heightmap.Types type, LevelHeightAccessor heightAccessor,
+                                              RandomState randomState, CallbackInfoReturnable<Integer> cir) {
+        WorldGenProfile profile = worldmodifier$bandProfile(heightAccessor);
+        if (profile == null) {
+            return;
+        }
+        NoiseGeneratorSettings settings = ((NoiseBasedChunkGenerator) (Object) this).generatorSettings().value();
+        NoiseSettings band = settings.noiseSettings().clampToHeightAccessor(heightAccessor);
+        int fillBottom = worldmodifier$fillBottom(settings, heightAccessor);
+        int waterTop = worldmodifier$waterTop(profile, settings, band, heightAccessor);
+
+        int height = cir.getReturnValue();
+        if (height < band.minY() && fillBottom < band.minY() && type.isOpaque().test(settings.defaultBlock())) {
+            height = band.minY();
+        }
+        if (type.isOpaque().test(settings.defaultFluid())) {
+            height = Math.max(height, waterTop);
+        }
+        cir.setReturnValue(height);
+    }
+
+    /**
+     * Rebuilds the column over the noise range, with the fill below the band and the water
+     * above it.
+     */
+    @Inject(method = "getBaseColumn", at = @At("RETURN"), cancellable = true)
+    private void worldmodifier$bandBaseColumn(int x, int z, LevelHeightAccessor heightAccessor, RandomState randomState,
+                                              CallbackInfoReturnable<NoiseColumn> cir) {
+        WorldGenProfile profile = worldmodifier$bandProfile(heightAccessor);
+        if (profile == null) {
+            return;
+        }
+        NoiseGeneratorSettings settings = ((NoiseBasedChunkGenerator) (Object) this).generatorSettings().value();
+        NoiseSettings band = settings.noiseSettings().clampToHeightAccessor(heightAccessor);
+        int bandTop = band.minY() + band.height();
+        int minY = Math.min(worldmodifier$fillBottom(settings, heightAccessor), band.minY());
+        int maxY = Math.max(bandTop, worldmodifier$waterTop(profile, settings, band, heightAccessor));
+
+        NoiseColumn column = cir.getReturnValue();
+        BlockState[] states = new BlockState[Math.max(0, maxY - minY)];
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, 0, z);
+        for (int y = minY; y < maxY; y++) {
+            if (y < band.minY()) {
+                states[y - minY] = settings.defaultBlock();
+            } else if (y < bandTop) {
+                states[y - minY] = column.getBlock(pos.setY(y));
+            } else {
+                states[y - minY] = settings.defaultFluid();
+            }
+        }
+        cir.setReturnValue(new NoiseColumn(minY, states));
+    }
+
+    /**
+     * @return the datapack's own noise range, which vanilla clamps noise to
+     */
+    @Unique
+    private static TerrainBandFiller.NoiseRange worldmodifier$noiseRange(NoiseGeneratorSettings settings) {
+        // NoiseSettings is a record, so only the Object view can be cast to the mixin interface
+        return (TerrainBandFiller.NoiseRange) (Object) settings.noiseSettings();
+    }
+
+    /**
+     * @return lowest block y filled below the band
+     */
+    @Unique
+    private static int worldmodifier$fillBottom(NoiseGeneratorSettings settings, LevelHeightAccessor heightAccessor) {
+        return Math.max(worldmodifier$noiseRange(settings).worldmodifier$noiseMinY(), heightAccessor.getMinBuildHeight());
+    }
+
+    /**
+     * @return block y above the water filled above the band, or the band's top if none is
+     */
+    @Unique
+    private static int worldmodifier$waterTop(WorldGenProfile profile, NoiseGeneratorSettings settings,
+                                              NoiseSettings band, LevelHeightAccessor heightAccessor) {
+        int bandTop = band.minY() + band.height();
+        if (!profile.floodsAboveTerrainBand()) {
+            return bandTop;
+        }
+        int top = Math.min(profile.seaLevel, worldmodifier$noiseRange(settings).worldmodifier$noiseMaxY());
+        return Math.max(bandTop, Math.min(top, heightAccessor.getMaxBuildHeight()));
+    }
+
+    /**
+     * @return the profile for a height query if its terrain band is active, else null
+     */
+    @Unique
+    @Nullable
+    private WorldGenProfile worldmodifier$bandProfile(LevelHeightAccessor heightAccessor) {
+        DimensionBinding binding = ((DimensionBound) this).worldmodifier$binding();
+        if (binding == null) {
+            return null;
+        }
+        WorldGenProfile profile = heightAccessor instanceof ChunkAccess chunk
+                ? ChunkProfiles.pin(chunk, binding)
+                : binding.profile();
+        return profile.terrainBandActive ? profile : null;
+    }
+}
@@ -1,22 +1,37 @@
 package com.worldmodifier.mixin;
 
+import com.google.common.collect.ImmutableSet;
+import com.worldmodifier.WorldGenProfile;
 import com.worldmodifier.WorldModifier;
-import com.worldmodifier.WorldModifierConfig;
+import com.worldmodifier.biome.BiomeFilterTable;
+import com.worldmodifier.biome.FilteredBiomeSource;
+import com.worldmodifier.biome.SurveyableBiomeSource;
+import com.worldmodifier.dimension.ChunkProfiles;
+import com.worldmodifier.dimension.DimensionBinding;
+import com.worldmodifier.dimension.DimensionBound;
+import com.worldmodifier.metrics.BiomeFilterEvent;
+import com.worldmodifier.metrics.WorldModifierMetrics;
 import net.minecraft.core.Holder;
-import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Climate;
 import net.minecraft.world.level.biome.TheEndBiomeSource;
+import net.minecraft.world.level.levelgen.DensityFunction;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Mixin to intercept biome selection in TheEndBiomeSource.
@@ -24,62 +39,240 @@ import java.util.Optional;
  * Design: Same approach as MultiNoiseBiomeSourceMixin but for the End dimension.
  */
 @Mixin(TheEndBiomeSource.class)
-public class TheEndBiomeSourceMixin {
+public class TheEndBiomeSourceMixin implements FilteredBiomeSource, SurveyableBiomeSource, DimensionBound {
 
+    @Shadow
+    @Final
+    private Holder<Biome> end;
+
+    @Shadow
+    @Final
+    private Holder<Biome> highlands;
+
+    @Shadow
+    @Final
+    private Holder<Biome> midlands;
+
+    @Shadow
+    @Final
+    private Holder<Biome> islands;
+
+    @Shadow
+    @Final
+    private Holder<Biome> barrens;
+
+    // Set by DimensionProfiles when the server starts; null for dimensions without a profile
+    @Unique
+    private volatile DimensionBinding worldmodifier$binding;
+
+    // Immutable table published for all worldgen threads; swapped atomically on reload
+    @Unique
+    private volatile BiomeFilterTable worldmodifier$filterTable;
+
+    // Table of the profile before the last reload, for chunks still generating with it
+    @Unique
+    private volatile BiomeFilterTable worldmodifier$previousFilterTable;
+
+    // Unfiltered result of collectPossibleBiomes, captured before anything was reported
+    @Unique
+    private volatile List<Holder<Biome>> worldmodifier$allBiomes;
+
+    // What possibleBiomes() reported when it was filtered; fixed for the life of the source
     @Unique
-    private Map<ResourceLocation, Holder<Biome>> worldmodifier$biomeHolderCache = new HashMap<>();
+    @Nullable
+    private volatile Set<Holder<Biome>> worldmodifier$reportedBiomes;
+
+    /**
+     * Begins the biome filter event, so its duration covers the source's own lookup too.
+     */
+    @Inject(method = "getNoiseBiome", at = @At("HEAD"))
+    private void worldmodifier$startLookup(int x, int y, int z,
+                                           net.minecraft.world.level.biome.Climate.Sampler sampler,
+                                           CallbackInfoReturnable<Holder<Biome>> cir) {
+        if (worldmodifier$isFiltering(worldmodifier$profile())) {
+            BiomeFilterEvent.start();
+        }
+    }
 
     @Inject(method = "getNoiseBiome", at = @At("RETURN"), cancellable = true)
     private void worldmodifier$filterBiome(int x, int y, int z,
                                              net.minecraft.world.level.biome.Climate.Sampler sampler,
                                              CallbackInfoReturnable<Holder<Biome>> cir) {
-        if (!WorldModifierConfig.isFilteringActive()) {
+        WorldGenProfile profile = worldmodifier$profile();
+        if (!worldmodifier$isFiltering(profile)) {
             return;
         }
 
+        WorldModifierMetrics.NOISE_BIOME_CALLS.increment();
+
         Holder<Biome> originalBiome = cir.getReturnValue();
         if (originalBiome == null) {
             return;
         }
 
-        Optional<ResourceKey<Biome>> keyOpt = originalBiome.unwrapKey();
-        if (keyOpt.isEmpty()) {
-            return;
+        // Identity lookup in the precompiled table (rebuilt when the profile changes)
+        Holder<Biome> replacement = worldmodifier$getFilterTable(profile).replace(originalBiome, x, z);
+        if (replacement != originalBiome) {
+            cir.setReturnValue(replacement);
         }
 
-        ResourceLocation biomeId = keyOpt.get().location();
+        BiomeFilterEvent event = BiomeFilterEvent.finish();
+        if (event != null) {
+            event.chunkX = QuartPos.toSection(x);
+            event.chunkZ = QuartPos.toSection(z);
+            event.quartY = y;
+            event.dimension = worldmodifier$binding.dimension().toString();
+            event.original = BiomeFilterEvent.name(originalBiome);
+            event.replacement = BiomeFilterEvent.name(replacement);
+            event.commit();
+        }
+    }
 
-        // Check if biome is allowed based on current mode (whitelist/blacklist)
-        if (WorldModifierConfig.isBiomeAllowed(biomeId)) {
-            return;
+    @Override
+    public BiomeFilterTable worldmodifier$currentFilterTable() {
+        WorldGenProfile profile = worldmodifier$profile();
+        return worldmodifier$isFiltering(profile) ? worldmodifier$getFilterTable(profile) : null;
+    }
+
+    /**
+     * Resolves the vanilla pick the same way getNoiseBiome does, then the filtered result,
+     * bypassing the filter hooks and the metrics.
+     */
+    @Override
+    public void worldmodifier$sample(int x, int y, int z, Climate.Sampler sampler, Sample out) {
+        int sectionX = SectionPos.blockToSectionCoord(QuartPos.toBlock(x));
+        int sectionZ = SectionPos.blockToSectionCoord(QuartPos.toBlock(z));
+        Holder<Biome> original;
+        if ((long) sectionX * sectionX + (long) sectionZ * sectionZ <= 4096L) {
+            original = end;
+        } else {
+            double erosion = sampler.erosion().compute(new DensityFunction.SinglePointContext(
+                    (sectionX * 2 + 1) * 8, QuartPos.toBlock(y), (sectionZ * 2 + 1) * 8));
+            if (erosion > 0.25D) {
+                original = highlands;
+            } else if (erosion >= -0.0625D) {
+                original = midlands;
+            } else {
+                original = erosion < -0.21875D ? islands : barrens;
+            }
         }
+        out.original = original;
 
-        Holder<Biome> replacement = worldmodifier$getFallbackBiome();
-        if (replacement != null) {
-            cir.setReturnValue(replacement);
+        WorldGenProfile profile = worldmodifier$profile();
+        out.filtered = worldmodifier$isFiltering(profile)
+                ? worldmodifier$getFilterTable(profile).peek(original, x, z)
+                : original;
+    }
+
+    /**
+     * Reports only the biomes the filter can produce when filterPossibleBiomes is on, so feature
+     * sorting and the per-step feature caches skip every biome that can never generate.
+     * possibleBiomes() memoizes this, so the reported set is frozen from then on.
+     */
+    @Inject(method = "collectPossibleBiomes", at = @At("RETURN"), cancellable = true)
+    private void worldmodifier$filterPossibleBiomes(CallbackInfoReturnable<Stream<Holder<Biome>>> cir) {
+        List<Holder<Biome>> all = cir.getReturnValue().distinct().toList();
+        worldmodifier$allBiomes = all;
+
+        WorldGenProfile profile = worldmodifier$profile();
+        if (profile == null || !profile.filteringActive || !profile.filterPossibleBiomes) {
+            cir.setReturnValue(all.stream());
+            return;
         }
+
+        BiomeFilterTable table = BiomeFilterTable.build(profile, all, null, null,
+                worldmodifier$binding.fallbacks(), worldmodifier$binding.seed(), worldmodifier$sourceName());
+        worldmodifier$filterTable = table;
+        worldmodifier$reportedBiomes = ImmutableSet.copyOf(table.producible());
+        WorldModifier.LOGGER.info("[TheEndBiomeSourceMixin.filterPossibleBiomes]: Reporting {} of {} biomes",
+                table.producible().size(), all.size());
+        cir.setReturnValue(table.producible().stream());
+    }
+
+    @Override
+    public DimensionBinding worldmodifier$binding() {
+        return worldmodifier$binding;
     }
 
+    @Override
+    public void worldmodifier$bind(DimensionBinding binding) {
+        worldmodifier$binding = binding;
+    }
+
+    /**
+     * @return the profile pinned by the chunk being generated on this thread, else the current
+     *         profile of the dimension this source is bound to; null if it has none
+     */
+    @Unique
+    @Nullable
+    private WorldGenProfile worldmodifier$profile() {
+        DimensionBinding binding = worldmodifier$binding;
+        return binding == null ? null : ChunkProfiles.resolve(binding);
+    }
+
+    /**
+     * @return true if results must go through the filter table: filtering is on, or the
+     *         reported biome set is frozen and must not be left even with filtering off
+     */
     @Unique
-    private Holder<Biome> worldmodifier$getFallbackBiome() {
-        ResourceLocation fallbackBiome = WorldModifierConfig.getFallbackBiome();
+    private boolean worldmodifier$isFiltering(@Nullable WorldGenProfile profile) {
+        return profile != null && (profile.filteringActive || worldmodifier$reportedBiomes != null);
+    }
 
-        // Check cache first
-        if (worldmodifier$biomeHolderCache.containsKey(fallbackBiome)) {
-            return worldmodifier$biomeHolderCache.get(fallbackBiome);
+    /**
+     * Gets the replacement table for the given profile, compiling it on first use after a reload.
+     * The table of the previous profile is kept, so chunks pinned before a reload do not make
+     * the current table rebuild back and forth.
+     */
+    @Unique
+    private BiomeFilterTable worldmodifier$getFilterTable(WorldGenProfile profile) {
+        BiomeFilterTable table = worldmodifier$filterTable;
+        if (!BiomeFilterTable.isStale(table, profile)) {
+            return table;
+        }
+        BiomeFilterTable previous = worldmodifier$previousFilterTable;
+        if (!BiomeFilterTable.isStale(previous, profile)) {
+            return previous;
+        }
+        if (table != null && profile.epoch < table.epoch) {
+            // A chunk pinned before the reload: keep the newer table current
+            previous = worldmodifier$build(profile);
+            worldmodifier$previousFilterTable = previous;
+            return previous;
         }
+        worldmodifier$previousFilterTable = table;
+        table = worldmodifier$build(profile);
+        worldmodifier$filterTable = table;
+        return table;
+    }
+
+    @Unique
+    private BiomeFilterTable worldmodifier$build(WorldGenProfile profile) {
+        return BiomeFilterTable.build(profile, worldmodifier$getAllBiomes(), null,
+                worldmodifier$reportedBiomes, worldmodifier$binding.fallbacks(), worldmodifier$binding.seed(),
+                worldmodifier$sourceName());
+    }
+
+    @Unique
+    private String worldmodifier$sourceName() {
+        return "TheEndBiomeSource of " + worldmodifier$binding.dimension();
+    }
 
-        // Search through the biome source's possible biomes to find the biome holder
-        BiomeSource self = (BiomeSource) (Object) this;
-        for (Holder<Biome> biomeHolder : self.possibleBiomes()) {
-            Optional<ResourceKey<Biome>> keyOpt = biomeHolder.unwrapKey();
-            if (keyOpt.isPresent() && keyOpt.get().location().equals(fallbackBiome)) {
-                worldmodifier$biomeHolderCache.put(fallbackBiome, biomeHolder);
-                return biomeHolder;
+    /**
+     * @return every biome the source can return, ignoring what possibleBiomes() reports
+     */
+    @Unique
+    private List<Holder<Biome>> worldmodifier$getAllBiomes() {
+        List<Holder<Biome>> all = worldmodifier$allBiomes;
+        if (all == null) {
+            // possibleBiomes() runs collectPossibleBiomes once, which captures the full list
+            BiomeSource self = (BiomeSource) (Object) this;
+            Set<Holder<Biome>> reported = self.possibleBiomes();
+            all = worldmodifier$allBiomes;
+            if (all == null) {
+                all = new ArrayList<>(reported);
             }
         }
-
-        WorldModifier.LOGGER.warn("[TheEndBiomeSourceMixin.getFallbackBiome]: Biome {} not found in biome source's possible biomes", fallbackBiome);
-        return null;
+        return all;
     }
 }
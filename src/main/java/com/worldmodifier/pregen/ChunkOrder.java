@@ -0,0 +1,105 @@
+package com.worldmodifier.pregen;
+
+import net.minecraft.world.level.ChunkPos;
+
+import javax.annotation.Nullable;
+
+/**
+ * Order in which a pregeneration task visits the chunks of its square.
+ *
+ * Design: Every order maps a dense index to a chunk position in O(1), so a task's progress is a
+ * single number that can be saved and resumed without remembering visited chunks. Indices that
+ * fall outside the square map to null and are skipped.
+ */
+public enum ChunkOrder {
+
+    /**
+     * Square spiral outwards from the center. The generated area stays a growing square,
+     * so a task stopped early is still useful.
+     */
+    SPIRAL {
+        @Override
+        public long size(int centerX, int centerZ, int radius) {
+            long side = 2L * radius + 1;
+            return side * side;
+        }
+
+        @Override
+        @Nullable
+        public ChunkPos at(long index, int centerX, int centerZ, int radius) {
+            if (index == 0) {
+                return new ChunkPos(centerX, centerZ);
+            }
+            // Ring k holds indices (2k-1)^2 .. (2k+1)^2 - 1
+            long n = index + 1;
+            long k = (long) Math.ceil((Math.sqrt(n) - 1) / 2);
+            while ((2 * k - 1) * (2 * k - 1) >= n) {
+                k--;
+            }
+            while ((2 * k + 1) * (2 * k + 1) < n) {
+                k++;
+            }
+
+            // Walk the ring's four edges backwards from its last index
+            long edge = 2 * k;
+            long last = (2 * k + 1) * (2 * k + 1);
+            long dx;
+            long dz;
+            if (n >= last - edge) {
+                dx = k - (last - n);
+                dz = -k;
+            } else if (n >= last - 2 * edge) {
+                dx = -k;
+                dz = -k + (last - edge - n);
+            } else if (n >= last - 3 * edge) {
+                dx = -k + (last - 2 * edge - n);
+                dz = k;
+            } else {
+                dx = k;
+                dz = k - (last - 3 * edge - n);
+            }
+            return new ChunkPos(centerX + (int) dx, centerZ + (int) dz);
+        }
+    },
+
+    /**
+     * Region file by region file (32x32 chunks), row by row. Each region is finished before the
+     * next is started, which keeps the number of open region files and dirty chunks low.
+     */
+    REGION {
+        @Override
+        public long size(int centerX, int centerZ, int radius) {
+            long regionsX = ((centerX + radius) >> 5) - ((centerX - radius) >> 5) + 1;
+            long regionsZ = ((centerZ + radius) >> 5) - ((centerZ - radius) >> 5) + 1;
+            return regionsX * regionsZ * 1024;
+        }
+
+        @Override
+        @Nullable
+        public ChunkPos at(long index, int centerX, int centerZ, int radius) {
+            int firstRegionX = (centerX - radius) >> 5;
+            int firstRegionZ = (centerZ - radius) >> 5;
+            long regionsX = ((centerX + radius) >> 5) - firstRegionX + 1;
+
+            long region = index >> 10;
+            int local = (int) (index & 1023);
+            int x = (int) ((firstRegionX + region % regionsX) << 5) + (local & 31);
+            int z = (int) ((firstRegionZ + region / regionsX) << 5) + (local >> 5);
+            if (Math.abs(x - centerX) > radius || Math.abs(z - centerZ) > radius) {
+                return null;
+            }
+            return new ChunkPos(x, z);
+        }
+    };
+
+    /**
+     * @return number of indices in the order, including skipped ones
+     */
+    public abstract long size(int centerX, int centerZ, int radius);
+
+    /**
+     * @return the chunk at the index, or null if the index is outside the square
+     */
+    @Nullable
+    public abstract ChunkPos at(long index, int centerX, int centerZ, int radius);
+}
@@ -0,0 +1,291 @@
+package com.worldmodifier.pregen;
+
+import com.worldmodifier.WorldModifier;
+import com.worldmodifier.WorldModifierConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs at most one {@link PregenTask} per server, driven by the server tick.
+ *
+ * Design: Each tick tops up the number of chunk requests in flight to the configured limit.
+ * The requests go through ServerChunkCache.getChunkFuture, so the chunks are generated on the
+ * worldgen executor like any other chunk, with this mod's filters applied. When the average tick
+ * time is above the target, no new chunks are requested until it recovers, so players on a
+ * live server keep priority. Completions are handed back to the server thread, which owns all
+ * task state.
+ *
+ * Every requested chunk holds a pregen ticket at FULL level until its future completes. The
+ * ticket getChunkFuture adds on its own expires after one tick, and a chunk whose holder drops
+ * below FULL while still generating completes as unloaded and would be counted as failed.
+ *
+ * Progress is saved to data/worldmodifier-pregen.properties in the world folder periodically,
+ * on pause and on shutdown; a saved task resumes when the server starts again.
+ */
+public final class PregenManager {
+
+    private static final String PROGRESS_FILE = "worldmodifier-pregen.properties";
+    private static final int REPORT_INTERVAL_TICKS = 200;
+    private static final int SAVE_INTERVAL_TICKS = 1200;
+    // Bounds the work spent skipping indices outside the square in one tick
+    private static final int MAX_SKIPS_PER_TICK = 4096;
+    // Keeps requested chunks loaded until their generation completes; removed explicitly
+    private static final TicketType<ChunkPos> PREGEN_TICKET =
+            TicketType.create(WorldModifier.MODID + ":pregen", Comparator.comparingLong(ChunkPos::toLong));
+
+    @Nullable
+    private static MinecraftServer server;
+    @Nullable
+    private static PregenTask task;
+
+    private static int ticks;
+    private static boolean throttled;
+    private static long reportStartNanos;
+    private static long reportStartGenerated;
+    private static double chunksPerSecond;
+
+    private PregenManager() {
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    /**
+     * Restores a saved task when a server starts.
+     */
+    public static void onServerStarted(MinecraftServer startedServer) {
+        server = startedServer;
+        task = null;
+        Path file = progressFile(startedServer);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            task = PregenTask.load(file);
+            resetRate();
+            WorldModifier.LOGGER.info("[PregenManager.onServerStarted]: Restored pregeneration of {} at {}/{}{}",
+                    task.dimension.location(), task.nextIndex(), task.size, task.isPaused() ? " (paused)" : "");
+        } catch (IOException e) {
+            WorldModifier.LOGGER.error("[PregenManager.onServerStarted]: Failed to restore pregeneration progress", e);
+        }
+    }
+
+    /**
+     * Saves the running task before the server shuts down.
+     */
+    public static void onServerStopping() {
+        if (server != null && task != null) {
+            save();
+        }
+        task = null;
+        server = null;
+    }
+
+    /**
+     * Requests more chunks for the running task. Called at the end of every server tick.
+     */
+    public static void tick() {
+        PregenTask current = task;
+        if (server == null || current == null || current.isPaused()) {
+            return;
+        }
+
+        ticks++;
+        if (ticks % REPORT_INTERVAL_TICKS == 0) {
+            report(current);
+        }
+        if (ticks % SAVE_INTERVAL_TICKS == 0) {
+            save();
+        }
+
+        if (current.isDone()) {
+            finish(current);
+            return;
+        }
+
+        throttled = server.getAverageTickTime() > WorldModifierConfig.getPregenTargetMspt();
+        if (throttled) {
+            return;
+        }
+
+        ServerLevel level = server.getLevel(current.dimension);
+        if (level == null) {
+            WorldModifier.LOGGER.error("[PregenManager.tick]: Dimension {} no longer exists, cancelling pregeneration",
+                    current.dimension.location());
+            cancel();
+            return;
+        }
+
+        int budget = WorldModifierConfig.getPregenMaxInFlight() - current.inFlightCount();
+        int skips = 0;
+        while (budget > 0 && !current.isExhausted() && skips < MAX_SKIPS_PER_TICK) {
+            long index = current.nextIndex();
+            ChunkPos pos = current.next();
+            if (pos == null) {
+                skips++;
+                continue;
+            }
+            current.markInFlight();
+            budget--;
+            // Radius 0 puts the ticket at level 33, which keeps the holder at FULL
+            level.getChunkSource().addRegionTicket(PREGEN_TICKET, pos, 0, pos);
+            level.getChunkSource().getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true)
+                    .whenCompleteAsync((result, error) -> {
+                        level.getChunkSource().removeRegionTicket(PREGEN_TICKET, pos, 0, pos);
+                        current.complete(index, error == null && result.left().isPresent());
+                    }, server);
+        }
+    }
+
+    // ==================== COMMANDS ====================
+
+    /**
+     * @return null on success, otherwise the reason the task was not started
+     */
+    @Nullable
+    public static String start(PregenTask newTask) {
+        if (server == null) {
+            return "No server running";
+        }
+        if (task != null) {
+            return "A pregeneration is already running; cancel it first";
+        }
+        task = newTask;
+        ticks = 0;
+        resetRate();
+        save();
+        WorldModifier.LOGGER.info("[PregenManager.start]: Pregenerating {} chunks around {}, {} in {} order",
+                (2L * newTask.radius + 1) * (2L * newTask.radius + 1),
+                new ChunkPos(newTask.centerX, newTask.centerZ), newTask.dimension.location(), newTask.order);
+        return null;
+    }
+
+    /**
+     * @return false if no task is running
+     */
+    public static boolean setPaused(boolean paused) {
+        if (task == null) {
+            return false;
+        }
+        task.setPaused(paused);
+        resetRate();
+        save();
+        return true;
+    }
+
+    /**
+     * @return false if no task was running
+     */
+    public static boolean cancel() {
+        if (task == null) {
+            return false;
+        }
+        task = null;
+        deleteProgress();
+        return true;
+    }
+
+    /**
+     * @return human-readable status lines
+     */
+    public static List<String> status() {
+        List<String> lines = new ArrayList<>();
+        PregenTask current = task;
+        if (current == null) {
+            lines.add("No pregeneration running");
+            return lines;
+        }
+
+        String state = current.isPaused() ? "paused" : throttled ? "throttled" : "running";
+        lines.add("Pregenerating " + current.dimension.location() + " around " +
+                new ChunkPos(current.centerX, current.centerZ) + ", radius " + current.radius +
+                ", " + current.order + " order (" + state + ")");
+        lines.add(String.format("Progress: %.1f%%, %d chunks generated, %d failed, %d in flight",
+                100.0 * current.watermark() / current.size, current.generated(), current.failed(),
+                current.inFlightCount()));
+        if (server != null) {
+            lines.add(String.format("Rate: %.1f chunks/s, %.1f mspt", chunksPerSecond, server.getAverageTickTime()));
+        }
+        return lines;
+    }
+
+    // ==================== INTERNAL ====================
+
+    private static void report(PregenTask current) {
+        long now = System.nanoTime();
+        double seconds = (now - reportStartNanos) / 1.0e9;
+        if (seconds > 0) {
+            chunksPerSecond = (current.generated() - reportStartGenerated) / seconds;
+        }
+        reportStartNanos = now;
+        reportStartGenerated = current.generated();
+
+        double remaining = current.size - current.watermark();
+        String eta = chunksPerSecond > 0 ? formatDuration((long) (remaining / chunksPerSecond)) : "unknown";
+        WorldModifier.LOGGER.info("[PregenManager.report]: {}/{} ({}%), {} chunks/s, ETA {}{}",
+                current.watermark(), current.size,
+                String.format("%.1f", 100.0 * current.watermark() / current.size),
+                String.format("%.1f", chunksPerSecond), eta, throttled ? " (throttled)" : "");
+    }
+
+    private static void finish(PregenTask current) {
+        WorldModifier.LOGGER.info("[PregenManager.finish]: Pregeneration of {} done: {} chunks generated, {} failed",
+                current.dimension.location(), current.generated(), current.failed());
+        task = null;
+        deleteProgress();
+    }
+
+    private static void resetRate() {
+        reportStartNanos = System.nanoTime();
+        reportStartGenerated = task == null ? 0 : task.generated();
+        chunksPerSecond = 0;
+        throttled = false;
+    }
+
+    private static void save() {
+        if (server == null || task == null) {
+            return;
+        }
+        try {
+            task.save(progressFile(server));
+        } catch (IOException e) {
+            WorldModifier.LOGGER.error("[PregenManager.save]: Failed to save pregeneration progress", e);
+        }
+    }
+
+    private static void deleteProgress() {
+        if (server == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(progressFile(server));
+        } catch (IOException e) {
+            WorldModifier.LOGGER.error("[PregenManager.deleteProgress]: Failed to delete pregeneration progress", e);
+        }
+    }
+
+    private static Path progressFile(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(PROGRESS_FILE);
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return (seconds / 3600) + "h " + (seconds % 3600 / 60) + "m";
+        }
+        if (seconds >= 60) {
+            return (seconds / 60) + "m " + (seconds % 60) + "s";
+        }
+        return seconds + "s";
+    }
+}
@@ -0,0 +1,189 @@
+package com.worldmodifier.pregen;
+
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * State of one pregeneration run: a square of chunks around a center, visited in a {@link ChunkOrder}.
+ *
+ * Design: Chunks are requested in index order but may finish out of order, so the task tracks
+ * the indices still in flight. Everything below the smallest in-flight index is done; that
+ * watermark is what gets saved, so a resumed task re-requests at most one batch of chunks
+ * (which then just load from disk).
+ *
+ * Thread safety: Only touched from the server thread.
+ */
+public final class PregenTask {
+
+    public final ResourceKey<Level> dimension;
+    public final int centerX;
+    public final int centerZ;
+    public final int radius;
+    public final ChunkOrder order;
+    /** Number of indices in {@link #order}, including skipped ones. */
+    public final long size;
+
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long nextIndex;
+    private long generated;
+    private long failed;
+    private boolean paused;
+
+    public PregenTask(ResourceKey<Level> dimension, int centerX, int centerZ, int radius, ChunkOrder order) {
+        this(dimension, centerX, centerZ, radius, order, 0);
+    }
+
+    private PregenTask(ResourceKey<Level> dimension, int centerX, int centerZ, int radius, ChunkOrder order,
+                       long startIndex) {
+        this.dimension = dimension;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.order = order;
+        this.size = order.size(centerX, centerZ, radius);
+        this.nextIndex = startIndex;
+    }
+
+    // ==================== SCHEDULING ====================
+
+    /**
+     * @return true if every index has been requested
+     */
+    public boolean isExhausted() {
+        return nextIndex >= size;
+    }
+
+    /**
+     * @return true if every index has been requested and completed
+     */
+    public boolean isDone() {
+        return isExhausted() && inFlight.isEmpty();
+    }
+
+    /**
+     * @return the index the next {@link #next()} call will look at
+     */
+    public long nextIndex() {
+        return nextIndex;
+    }
+
+    /**
+     * Advances the cursor by one index.
+     *
+     * @return the chunk at the consumed index, or null if it is outside the square
+     */
+    @Nullable
+    public ChunkPos next() {
+        return order.at(nextIndex++, centerX, centerZ, radius);
+    }
+
+    /**
+     * Marks the index consumed by the last {@link #next()} as requested.
+     */
+    public void markInFlight() {
+        inFlight.add(nextIndex - 1);
+    }
+
+    /**
+     * @param index the completed index
+     * @param success false if the chunk failed to generate
+     */
+    public void complete(long index, boolean success) {
+        if (inFlight.remove(index)) {
+            if (success) {
+                generated++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return the lowest index that is not yet known to be done
+     */
+    public long watermark() {
+        return inFlight.isEmpty() ? nextIndex : inFlight.first();
+    }
+
+    public long generated() {
+        return generated;
+    }
+
+    public long failed() {
+        return failed;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    // ==================== PERSISTENCE ====================
+
+    /**
+     * Writes the task to the file, replacing it atomically.
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("dimension", dimension.location().toString());
+        properties.setProperty("centerX", Integer.toString(centerX));
+        properties.setProperty("centerZ", Integer.toString(centerZ));
+        properties.setProperty("radius", Integer.toString(radius));
+        properties.setProperty("order", order.name());
+        properties.setProperty("index", Long.toString(watermark()));
+        properties.setProperty("paused", Boolean.toString(paused));
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            properties.store(writer, "World Modifier pregeneration progress");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores a task saved with {@link #save(Path)}.
+     *
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static PregenTask load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        try {
+            ResourceLocation dimension = new ResourceLocation(properties.getProperty("dimension"));
+            PregenTask task = new PregenTask(
+                    ResourceKey.create(Registries.DIMENSION, dimension),
+                    Integer.parseInt(properties.getProperty("centerX")),
+                    Integer.parseInt(properties.getProperty("centerZ")),
+                    Integer.parseInt(properties.getProperty("radius")),
+                    ChunkOrder.valueOf(properties.getProperty("order")),
+                    Long.parseLong(properties.getProperty("index")));
+            task.paused = Boolean.parseBoolean(properties.getProperty("paused"));
+            return task;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed pregeneration progress in " + file, e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.worldmodifier.survey;
+
+import com.worldmodifier.biome.SurveyableBiomeSource;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Biome distribution survey of a dimension, sampled straight from its biome source.
+ *
+ * Design: Samples a square of quart columns at sea level without generating or loading chunks.
+ * The square is split into {@link SurveyTile}s on the common fork-join pool, each counting into
+ * its own maps, merged on join, so sampling is lock-free. Only one survey runs at a time, and
+ * it is limited to {@link #MAX_SAMPLES} samples, so it cannot occupy the pool indefinitely.
+ *
+ * Contract: Reflects the filter as currently configured. Only sources with a survey hook
+ * ({@link SurveyableBiomeSource}) are surveyed; they neither cache survey samples nor count them
+ * in the metrics, so running a survey does not affect world generation or the stats.
+ */
+public final class BiomeSurvey {
+
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+    private static final int HISTOGRAM_WIDTH = 20;
+    // Four times a 10000 block radius at full resolution; a few seconds to a minute of sampling
+    private static final long MAX_SAMPLES = 100_000_000L;
+
+    private BiomeSurvey() {
+    }
+
+    /**
+     * @param level the dimension to survey
+     * @param radius half the square's side, in blocks
+     * @param step distance between samples, in quarts (4 blocks)
+     * @return null if the survey can run, otherwise the reason it cannot
+     */
+    @Nullable
+    public static String check(ServerLevel level, int radius, int step) {
+        if (!(level.getChunkSource().getGenerator().getBiomeSource() instanceof SurveyableBiomeSource)) {
+            return "The biome source of " + level.dimension().location() + " cannot be surveyed";
+        }
+        long samplesPerSide = samplesPerSide(radius, step);
+        if (samplesPerSide * samplesPerSide > MAX_SAMPLES) {
+            int minStep = 2 * QuartPos.fromBlock(radius) / ((int) Math.sqrt(MAX_SAMPLES) - 1) + 1;
+            return String.format("Too many samples (%,d, at most %,d); use a step of at least %d",
+                    samplesPerSide * samplesPerSide, MAX_SAMPLES, minStep);
+        }
+        return null;
+    }
+
+    /**
+     * Starts a survey in the background. Call {@link #check} first.
+     *
+     * @param level the dimension to survey
+     * @param center center of the square
+     * @param radius half the square's side, in blocks
+     * @param step distance between samples, in quarts (4 blocks)
+     * @return the report lines once done, or null if another survey is still running
+     */
+    @Nullable
+    public static CompletableFuture<List<String>> start(ServerLevel level, BlockPos center, int radius, int step) {
+        ChunkGenerator generator = level.getChunkSource().getGenerator();
+        if (check(level, radius, step) != null
+                || !(generator.getBiomeSource() instanceof SurveyableBiomeSource source)) {
+            throw new IllegalArgumentException("Survey of " + level.dimension().location() + " cannot run");
+        }
+        if (!RUNNING.compareAndSet(false, true)) {
+            return null;
+        }
+
+        Climate.Sampler sampler = level.getChunkSource().randomState().sampler();
+        int quartRadius = QuartPos.fromBlock(radius);
+        int samplesPerSide = (int) samplesPerSide(radius, step);
+        int originX = QuartPos.fromBlock(center.getX()) - quartRadius;
+        int originZ = QuartPos.fromBlock(center.getZ()) - quartRadius;
+        int quartY = QuartPos.fromBlock(generator.getSeaLevel());
+        String header = "Biome survey of " + level.dimension().location() + ", radius " + radius +
+                " blocks around " + center.getX() + ", " + center.getZ() + " at Y " + generator.getSeaLevel();
+
+        SurveyTile root = new SurveyTile(source, sampler, quartY, step, originX, originZ,
+                0, 0, samplesPerSide, samplesPerSide);
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(root::invoke, ForkJoinPool.commonPool())
+                .thenApply(result -> format(header, result, (System.nanoTime() - start) / 1.0e9))
+                .whenComplete((lines, error) -> RUNNING.set(false));
+    }
+
+    private static long samplesPerSide(int radius, int step) {
+        return 2L * QuartPos.fromBlock(radius) / step + 1;
+    }
+
+    private static List<String> format(String header, SurveyResult result, double seconds) {
+        List<String> lines = new ArrayList<>();
+        lines.add(header);
+        lines.add(String.format("%,d samples in %.1fs (%,.0f samples/s)", result.samples, seconds,
+                result.samples / Math.max(seconds, 1.0e-9)));
+
+        lines.add("Generated biomes:");
+        for (Reference2LongMap.Entry<Holder<Biome>> entry : sorted(result.filtered)) {
+            double share = (double) entry.getLongValue() / result.samples;
+            lines.add(String.format("  %-6s %s %s", String.format("%.1f%%", share * 100), bar(share),
+                    name(entry.getKey())));
+        }
+
+        lines.add(String.format("Replaced: %.1f%% of samples", 100.0 * result.replacedSamples / result.samples));
+        for (Reference2LongMap.Entry<Holder<Biome>> entry : sorted(result.replaced)) {
+            double ratio = (double) entry.getLongValue() / result.original.getLong(entry.getKey());
+            lines.add(String.format("  %-6s %s (%.0f%% of it replaced)",
+                    String.format("%.1f%%", 100.0 * entry.getLongValue() / result.samples),
+                    name(entry.getKey()), ratio * 100));
+        }
+        return lines;
+    }
+
+    private static List<Reference2LongMap.Entry<Holder<Biome>>> sorted(Reference2LongOpenHashMap<Holder<Biome>> counts) {
+        List<Reference2LongMap.Entry<Holder<Biome>>> entries = new ArrayList<>(counts.reference2LongEntrySet());
+        entries.sort(Comparator.comparingLong(Reference2LongMap.Entry<Holder<Biome>>::getLongValue).reversed());
+        return entries;
+    }
+
+    private static String bar(double share) {
+        int filled = (int) Math.round(share * HISTOGRAM_WIDTH);
+        return "#".repeat(filled) + ".".repeat(HISTOGRAM_WIDTH - filled);
+    }
+
+    private static String name(Holder<Biome> biome) {
+        return biome.unwrapKey().map(key -> key.location().toString()).orElse("[unregistered]");
+    }
+}
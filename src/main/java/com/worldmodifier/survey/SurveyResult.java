@@ -0,0 +1,46 @@
+package com.worldmodifier.survey;
+
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+
+/**
+ * Biome counts of one survey tile, merged up the fork-join tree.
+ *
+ * Thread safety: Each instance is filled by a single task and only read after it is joined.
+ */
+final class SurveyResult {
+
+    final Reference2LongOpenHashMap<Holder<Biome>> filtered = new Reference2LongOpenHashMap<>();
+    final Reference2LongOpenHashMap<Holder<Biome>> original = new Reference2LongOpenHashMap<>();
+    final Reference2LongOpenHashMap<Holder<Biome>> replaced = new Reference2LongOpenHashMap<>();
+    long samples;
+    long replacedSamples;
+
+    void add(Holder<Biome> originalBiome, Holder<Biome> filteredBiome) {
+        samples++;
+        filtered.addTo(filteredBiome, 1);
+        original.addTo(originalBiome, 1);
+        if (originalBiome != filteredBiome) {
+            replacedSamples++;
+            replaced.addTo(originalBiome, 1);
+        }
+    }
+
+    SurveyResult merge(SurveyResult other) {
+        samples += other.samples;
+        replacedSamples += other.replacedSamples;
+        mergeCounts(filtered, other.filtered);
+        mergeCounts(original, other.original);
+        mergeCounts(replaced, other.replaced);
+        return this;
+    }
+
+    private static void mergeCounts(Reference2LongOpenHashMap<Holder<Biome>> into,
+                                    Reference2LongOpenHashMap<Holder<Biome>> from) {
+        for (Reference2LongMap.Entry<Holder<Biome>> entry : from.reference2LongEntrySet()) {
+            into.addTo(entry.getKey(), entry.getLongValue());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.worldmodifier.survey;
+
+import com.worldmodifier.biome.SurveyableBiomeSource;
+import net.minecraft.world.level.biome.Climate;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task sampling a rectangle of quart columns at one height.
+ * Splits along its longer side until a tile holds at most {@link #LEAF_SAMPLES} samples.
+ */
+final class SurveyTile extends RecursiveTask<SurveyResult> {
+
+    // 64x64 samples: large enough to amortize task overhead, small enough to balance well
+    private static final int LEAF_SAMPLES = 64 * 64;
+
+    private final SurveyableBiomeSource source;
+    private final Climate.Sampler sampler;
+    private final int quartY;
+    private final int step;
+    // Sample grid bounds, in steps from the survey's origin; max is exclusive
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final int originX;
+    private final int originZ;
+
+    SurveyTile(SurveyableBiomeSource source, Climate.Sampler sampler, int quartY, int step,
+               int originX, int originZ, int minX, int minZ, int maxX, int maxZ) {
+        this.source = source;
+        this.sampler = sampler;
+        this.quartY = quartY;
+        this.step = step;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+    }
+
+    @Override
+    protected SurveyResult compute() {
+        int width = maxX - minX;
+        int depth = maxZ - minZ;
+        if ((long) width * depth > LEAF_SAMPLES) {
+            SurveyTile first;
+            SurveyTile second;
+            if (width >= depth) {
+                int mid = minX + width / 2;
+                first = split(minX, minZ, mid, maxZ);
+                second = split(mid, minZ, maxX, maxZ);
+            } else {
+                int mid = minZ + depth / 2;
+                first = split(minX, minZ, maxX, mid);
+                second = split(minX, mid, maxX, maxZ);
+            }
+            second.fork();
+            return first.compute().merge(second.join());
+        }
+        return sample();
+    }
+
+    private SurveyTile split(int fromX, int fromZ, int toX, int toZ) {
+        return new SurveyTile(source, sampler, quartY, step, originX, originZ, fromX, fromZ, toX, toZ);
+    }
+
+    private SurveyResult sample() {
+        SurveyResult result = new SurveyResult();
+        SurveyableBiomeSource.Sample sample = new SurveyableBiomeSource.Sample();
+        for (int z = minZ; z < maxZ; z++) {
+            for (int x = minX; x < maxX; x++) {
+                source.worldmodifier$sample(originX + x * step, quartY, originZ + z * step, sampler, sample);
+                result.add(sample.original, sample.filtered);
+            }
+        }
+        return result;
+    }
+}